@@ -0,0 +1,76 @@
+package solitaire.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import solitaire.model.DealId;
+import solitaire.model.Deck;
+
+/**
+ * Measures DealId ranking and unranking, and dealing a Deck from an id, after
+ * checking that random orderings survive the round trip. Run:
+ *
+ *   java solitaire.bench.DealIdBenchmark
+ */
+public class DealIdBenchmark {
+
+    private static final int IDS = 10_000;
+    private static final int ROUNDS = 100;
+
+    public static void main(String[] args) {
+        Random random = new Random(52);
+        DealId[] ids = new DealId[IDS];
+        int[][] orders = new int[IDS][];
+        for (int i = 0; i < IDS; i++) {
+            ids[i] = DealId.random(random);
+            orders[i] = ids[i].unrank();
+            if (!DealId.rank(orders[i]).equals(ids[i])) {
+                throw new IllegalStateException("Round trip failed for " + ids[i]);
+            }
+        }
+        int[] identity = new int[DealId.CARDS];
+        Arrays.setAll(identity, i -> i);
+        System.out.println("Identity order: " + DealId.rank(identity));
+        System.out.println("Sample deal:    " + ids[0]);
+
+        long checksum = 0;
+        int[] order = new int[DealId.CARDS];
+        for (int pass = 0; pass < 2; pass++) {
+            boolean report = pass == 1;
+
+            long start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int[] o : orders) {
+                    checksum += DealId.rank(o).hashCode();
+                }
+            }
+            print(report, "rank", start);
+
+            start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                for (DealId id : ids) {
+                    id.unrankInto(order);
+                    checksum += order[0];
+                }
+            }
+            print(report, "unrank", start);
+
+            start = System.nanoTime();
+            for (int r = 0; r < ROUNDS; r++) {
+                for (DealId id : ids) {
+                    Deck deck = new Deck(id);
+                    checksum += deck.drawCard().getRankValue();
+                }
+            }
+            print(report, "deal Deck from id", start);
+        }
+        System.out.println("(checksum " + checksum + ")");
+    }
+
+    private static void print(boolean report, String label, long start) {
+        if (report) {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-18s %6.2f M/s%n", label + ":", (double) IDS * ROUNDS / seconds / 1e6);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package solitaire.bench;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import solitaire.model.DealId;
+import solitaire.solver.HintEngine;
+import solitaire.solver.Position;
+
+/**
+ * Plays seeded deals by always following the first hint, once with the old
+ * "first legal move" order and once with HintEngine's ranking, and reports
+ * how far each gets and how long a hint takes. Run:
+ *
+ *   java solitaire.bench.HintBenchmark [deals] [depth]
+ */
+public class HintBenchmark {
+
+    private static final int MAX_MOVES_PER_GAME = 300;
+
+    public static void main(String[] args) {
+        int deals = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : HintEngine.DEFAULT_DEPTH;
+
+        System.out.println("Deals: " + deals + ", lookahead depth: " + depth);
+        play("first legal move", deals, null);
+        play("ranked lookahead", deals, new HintEngine(depth));
+    }
+
+    private static void play(String label, int deals, HintEngine engine) {
+        Random random = new Random(2024);
+        int[] moves = new int[Position.MAX_MOVES];
+        int wins = 0;
+        long foundationCards = 0;
+        long hints = 0;
+        long hintNanos = 0;
+        long worstHintNanos = 0;
+
+        for (int d = 0; d < deals; d++) {
+            Position position = Position.deal(DealId.random(random));
+            Set<Long> seen = new HashSet<>();
+            seen.add(position.hash());
+            for (int step = 0; step < MAX_MOVES_PER_GAME && !position.isWon(); step++) {
+                long start = System.nanoTime();
+                int chosen = -1;
+                if (engine == null) {
+                    int count = position.generateMoves(moves);
+                    for (int i = 0; i < count && chosen < 0; i++) {
+                        chosen = leadsSomewhereNew(position, moves[i], seen) ? moves[i] : -1;
+                    }
+                } else {
+                    HintEngine.Ranking ranking = engine.rank(position);
+                    while (ranking.hasNext() && chosen < 0) {
+                        int move = ranking.next();
+                        chosen = leadsSomewhereNew(position, move, seen) ? move : -1;
+                    }
+                }
+                long elapsed = System.nanoTime() - start;
+                hints++;
+                hintNanos += elapsed;
+                worstHintNanos = Math.max(worstHintNanos, elapsed);
+                if (chosen < 0) {
+                    break;
+                }
+                position.apply(chosen);
+                seen.add(position.hash());
+            }
+            if (position.isWon()) {
+                wins++;
+            }
+            foundationCards += position.getFoundationTotal();
+        }
+
+        System.out.printf("%-17s won %d/%d, %.1f foundation cards/deal, hint avg %.3f ms, worst %.2f ms%n",
+                label + ":", wins, deals, (double) foundationCards / deals,
+                hintNanos / 1e6 / hints, worstHintNanos / 1e6);
+    }
+
+    // Skips moves that return to a position this game has already been in.
+    private static boolean leadsSomewhereNew(Position position, int move, Set<Long> seen) {
+        int token = position.apply(move);
+        boolean fresh = !seen.contains(position.hash());
+        position.undo(move, token);
+        return fresh;
+    }
+}
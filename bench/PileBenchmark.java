@@ -0,0 +1,100 @@
+package solitaire.bench;
+
+import java.util.Stack;
+
+import solitaire.model.Card;
+import solitaire.model.Pile;
+import solitaire.model.WastePile;
+
+/**
+ * Compares push/peek/pop throughput of the array-backed Pile with the
+ * java.util.Stack store it replaced. Run:
+ *
+ *   java solitaire.bench.PileBenchmark
+ */
+public class PileBenchmark {
+
+    private static final int DEPTH = 24;
+    private static final int WARMUP_ROUNDS = 200_000;
+    private static final int ROUNDS = 2_000_000;
+    private static final int TRIALS = 5;
+
+    // The previous Pile store, kept here only as the baseline.
+    private static final class StackPile {
+        private final Stack<Card> cards = new Stack<>();
+
+        void addCard(Card card) {
+            cards.push(card);
+        }
+
+        Card topCard() {
+            return cards.isEmpty() ? null : cards.peek();
+        }
+
+        Card removeCard() {
+            return cards.isEmpty() ? null : cards.pop();
+        }
+    }
+
+    // Every card popped feeds this, so the JIT cannot drop the work.
+    private static volatile long sink = 0;
+
+    public static void main(String[] args) {
+        Card[] deck = new Card[DEPTH];
+        for (int i = 0; i < DEPTH; i++) {
+            deck[i] = new Card(Card.Suit.values()[i % 4], Card.Rank.values()[i % 13]);
+        }
+
+        Pile pile = new WastePile();
+        StackPile stackPile = new StackPile();
+        runArray(pile, deck, WARMUP_ROUNDS);
+        runStack(stackPile, deck, WARMUP_ROUNDS);
+
+        double bestArray = Double.MAX_VALUE;
+        double bestStack = Double.MAX_VALUE;
+        for (int trial = 0; trial < TRIALS; trial++) {
+            bestArray = Math.min(bestArray, runArray(pile, deck, ROUNDS));
+            bestStack = Math.min(bestStack, runStack(stackPile, deck, ROUNDS));
+        }
+
+        long ops = (long) ROUNDS * DEPTH * 3;
+        System.out.printf("Stack-backed pile: %.1f M ops/s%n", ops / bestStack / 1e6);
+        System.out.printf("Array-backed pile: %.1f M ops/s%n", ops / bestArray / 1e6);
+        System.out.printf("Array-backed pile is %.1fx faster (checksum %d)%n", bestStack / bestArray, sink);
+    }
+
+    // Each round pushes DEPTH cards, then peeks and pops them all; returns seconds.
+    private static double runArray(Pile pile, Card[] deck, int rounds) {
+        long start = System.nanoTime();
+        long sum = 0;
+        for (int r = 0; r < rounds; r++) {
+            // A different push order every round, so no round can be folded.
+            for (int i = 0; i < DEPTH; i++) {
+                pile.addCard(deck[(i + r) % DEPTH]);
+            }
+            Card top;
+            while ((top = pile.topCard()) != null) {
+                sum = sum * 31 + top.getRankValue() + pile.removeCard().getSuit().ordinal();
+            }
+        }
+        sink += sum;
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static double runStack(StackPile pile, Card[] deck, int rounds) {
+        long start = System.nanoTime();
+        long sum = 0;
+        for (int r = 0; r < rounds; r++) {
+            // A different push order every round, so no round can be folded.
+            for (int i = 0; i < DEPTH; i++) {
+                pile.addCard(deck[(i + r) % DEPTH]);
+            }
+            Card top;
+            while ((top = pile.topCard()) != null) {
+                sum = sum * 31 + top.getRankValue() + pile.removeCard().getSuit().ordinal();
+            }
+        }
+        sink += sum;
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
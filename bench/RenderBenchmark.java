@@ -0,0 +1,90 @@
+package solitaire.bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import javax.swing.SwingUtilities;
+
+import solitaire.gui.FrameTimeHistogram;
+import solitaire.gui.SolitaireGUI;
+import solitaire.model.Card;
+import solitaire.model.Pile;
+import solitaire.model.SolitaireGame;
+
+/**
+ * Compares full-redraw and layered rendering of SolitaireGUI on an endgame
+ * with four 13-card tableau runs. Run headless:
+ *
+ *   java -Djava.awt.headless=true solitaire.bench.RenderBenchmark
+ */
+public class RenderBenchmark {
+
+    private static final int WIDTH = 1200;
+    private static final int HEIGHT = 850;
+    private static final int WARMUP_FRAMES = 100;
+    private static final int FRAMES = 500;
+
+    public static void main(String[] args) throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            SolitaireGame game = new SolitaireGame();
+            dealLongTableauEndgame(game);
+
+            SolitaireGUI gui = new SolitaireGUI(game);
+            gui.setBounds(0, 0, WIDTH, HEIGHT);
+            BufferedImage screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+            double fullMean = run(gui, screen, false);
+            double layeredMean = run(gui, screen, true);
+            System.out.printf("Layered rendering is %.1fx faster per frame%n", fullMean / layeredMean);
+        });
+        System.exit(0);
+    }
+
+    private static double run(SolitaireGUI gui, BufferedImage screen, boolean layered) {
+        gui.setLayeredRendering(layered);
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            paint(gui, screen);
+        }
+
+        FrameTimeHistogram frameTimes = gui.getFrameTimes();
+        frameTimes.reset();
+        long redrawsBefore = gui.getBoardRedraws();
+        for (int i = 0; i < FRAMES; i++) {
+            paint(gui, screen);
+        }
+
+        System.out.println((layered ? "Layered" : "Full redraw") + " ("
+                + (gui.getBoardRedraws() - redrawsBefore) + " pile redraws):");
+        System.out.println(frameTimes);
+        return frameTimes.getMeanMillis();
+    }
+
+    private static void paint(SolitaireGUI gui, BufferedImage screen) {
+        Graphics2D g = screen.createGraphics();
+        gui.paint(g);
+        g.dispose();
+    }
+
+    // Two red-led and two black-led runs from king to ace, everything face up.
+    static void dealLongTableauEndgame(SolitaireGame game) {
+        game.getStockPile().clear();
+        game.getWastePile().clear();
+        for (int i = 0; i < 7; i++) {
+            game.getTableauPileObject(i).clear();
+        }
+
+        Card.Suit[][] pairs = {
+            {Card.Suit.SPADES, Card.Suit.HEARTS},
+            {Card.Suit.HEARTS, Card.Suit.SPADES},
+            {Card.Suit.CLUBS, Card.Suit.DIAMONDS},
+            {Card.Suit.DIAMONDS, Card.Suit.CLUBS}
+        };
+        Card.Rank[] ranks = Card.Rank.values();
+        for (int col = 0; col < pairs.length; col++) {
+            Pile pile = game.getTableauPileObject(col);
+            for (int r = ranks.length - 1; r >= 0; r--) {
+                Card card = new Card(pairs[col][(ranks.length - 1 - r) % 2], ranks[r]);
+                pile.addCard(card, true);
+            }
+        }
+    }
+}
@@ -1,30 +1,212 @@
 package solitaire.gui;
 
-import javax.swing.*;
+import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+
+import solitaire.model.Card;
 
 public class CardImageCache {
-    private static final Map<String, Image> images = new HashMap<>();
+    // Filled from the startup worker and read on the EDT.
+    private static final Map<String, Image> images = new ConcurrentHashMap<>();
     private static final String IMAGE_DIR = "assets/cards/";
 
+    private static final AtomicInteger decodedCount = new AtomicInteger();
+    private static final AtomicInteger generatedCount = new AtomicInteger();
+
+    // Pre-scaled copies of the whole deck, keyed by device pixel size and kept
+    // in least-recently-drawn order so stale window/screen scales get evicted.
+    private static final long SCALED_BUDGET_BYTES = 64L * 1024 * 1024;
+    private static final LinkedHashMap<Long, Map<String, BufferedImage>> scaledSets =
+            new LinkedHashMap<>(8, 0.75f, true);
+    private static final Set<Long> pendingSizes = new HashSet<>();
+    private static long scaledBytes = 0;
+    private static volatile long latestRequestedSize = -1;
+    private static final ExecutorService scaler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "card-image-scaler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public static Image getCardImage(String filename) {
-        if (!images.containsKey(filename)) {
-            ImageIcon icon = new ImageIcon(IMAGE_DIR + filename);
-
-            if (icon.getImageLoadStatus() == MediaTracker.COMPLETE && icon.getIconWidth() > 0) {
-                images.put(filename, icon.getImage());
-            } 
-            else if (filename.equals("back.png")) {
-                images.put(filename, createBluePatternedBack());
+        Image image = images.get(filename);
+        if (image == null) {
+            // Decode outside the map so parallel loads never block each other's bins.
+            image = loadImage(filename);
+            Image existing = images.putIfAbsent(filename, image);
+            if (existing != null) {
+                image = existing;
+            }
+        }
+        return image;
+    }
+
+    // Returns the image at exactly pixelWidth x pixelHeight so it can be blitted 1:1.
+    // If that size has not been built yet it is generated off the EDT, null is
+    // returned and onReady runs on the EDT once the whole deck is available.
+    public static Image getCardImage(String filename, int pixelWidth, int pixelHeight, Runnable onReady) {
+        Image base = getCardImage(filename);
+        if (base.getWidth(null) == pixelWidth && base.getHeight(null) == pixelHeight) {
+            return base;
+        }
+
+        long key = ((long) pixelWidth << 32) | pixelHeight;
+        synchronized (scaledSets) {
+            Map<String, BufferedImage> set = scaledSets.get(key);
+            if (set != null) {
+                return set.get(filename);
             }
-            else {
-                images.put(filename, createCardPlaceholder());
+            latestRequestedSize = key;
+            if (pendingSizes.add(key)) {
+                scaler.execute(() -> buildScaledSet(key, pixelWidth, pixelHeight, onReady));
             }
         }
-        return images.get(filename);
+        return null;
+    }
+
+    private static void buildScaledSet(long key, int pixelWidth, int pixelHeight, Runnable onReady) {
+        // While a window is being dragged to a new size only the last size matters.
+        if (key != latestRequestedSize) {
+            synchronized (scaledSets) {
+                pendingSizes.remove(key);
+            }
+            return;
+        }
+
+        Map<String, BufferedImage> set = new HashMap<>();
+        for (String filename : allFilenames()) {
+            set.put(filename, scaleImage(getCardImage(filename), pixelWidth, pixelHeight));
+        }
+
+        long bytes = (long) set.size() * pixelWidth * pixelHeight * 4;
+        synchronized (scaledSets) {
+            pendingSizes.remove(key);
+            scaledSets.put(key, set);
+            scaledBytes += bytes;
+
+            Iterator<Map.Entry<Long, Map<String, BufferedImage>>> eldest = scaledSets.entrySet().iterator();
+            while (scaledBytes > SCALED_BUDGET_BYTES && scaledSets.size() > 1) {
+                Map.Entry<Long, Map<String, BufferedImage>> entry = eldest.next();
+                int width = (int) (entry.getKey() >>> 32);
+                int height = (int) (long) entry.getKey();
+                scaledBytes -= (long) entry.getValue().size() * width * height * 4;
+                eldest.remove();
+            }
+        }
+
+        if (onReady != null) {
+            SwingUtilities.invokeLater(onReady);
+        }
+    }
+
+    // Halves in steps while shrinking by more than 2x so bilinear stays sharp.
+    private static BufferedImage scaleImage(Image source, int width, int height) {
+        Image current = source;
+        int currentWidth = source.getWidth(null);
+        int currentHeight = source.getHeight(null);
+
+        while (currentWidth / 2 >= width && currentHeight / 2 >= height) {
+            currentWidth /= 2;
+            currentHeight /= 2;
+            current = drawScaled(current, currentWidth, currentHeight, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+        return drawScaled(current, width, height, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    }
+
+    private static BufferedImage drawScaled(Image source, int width, int height, Object interpolation) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2 = scaled.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2.drawImage(source, 0, 0, width, height, null);
+        g2.dispose();
+        return scaled;
+    }
+
+    // Decodes the back and all 52 faces in parallel so the first deal never waits on disk.
+    // The map publishes each image safely to the EDT once it is stored.
+    public static void preloadAll() {
+        long start = System.nanoTime();
+        int decodedBefore = decodedCount.get();
+        int generatedBefore = generatedCount.get();
+
+        List<String> filenames = allFilenames();
+        int threads = Math.max(1, Math.min(filenames.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "card-image-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<Image>> pending = new ArrayList<>();
+            for (String filename : filenames) {
+                pending.add(pool.submit(() -> getCardImage(filename)));
+            }
+            for (Future<Image> future : pending) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("Card image preload failed: " + e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000L;
+        System.out.println("Preloaded " + images.size() + " card images in " + millis + " ms on "
+                + threads + " threads (decoded: " + (decodedCount.get() - decodedBefore)
+                + ", generated: " + (generatedCount.get() - generatedBefore) + ")");
+    }
+
+    private static List<String> allFilenames() {
+        List<String> filenames = new ArrayList<>();
+        filenames.add("back.png");
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                filenames.add(new Card(suit, rank).getImageFileName());
+            }
+        }
+        return filenames;
+    }
+
+    private static Image loadImage(String filename) {
+        File file = new File(IMAGE_DIR + filename);
+        if (file.isFile()) {
+            try {
+                BufferedImage decoded = ImageIO.read(file);
+                if (decoded != null) {
+                    decodedCount.incrementAndGet();
+                    return decoded;
+                }
+            } catch (IOException e) {
+                System.out.println("Could not decode " + filename + ": " + e.getMessage());
+            }
+        }
+
+        generatedCount.incrementAndGet();
+        if (filename.equals("back.png")) {
+            return createBluePatternedBack();
+        }
+        return createCardFace(filename);
     }
 
     private static Image createBluePatternedBack() {
@@ -68,11 +250,18 @@ public class CardImageCache {
         g2.fillPolygon(xPoints, yPoints, 4);
     }
 
-    private static Image createCardPlaceholder() {
+    // Draws a plain face from the file name, e.g. "10H.png" -> 10 of hearts.
+    private static Image createCardFace(String filename) {
         int width = 72;
         int height = 96;
+        String name = filename.endsWith(".png") ? filename.substring(0, filename.length() - 4) : filename;
+        String rank = name.length() > 1 ? name.substring(0, name.length() - 1) : name;
+        char suit = name.isEmpty() ? '?' : name.charAt(name.length() - 1);
+
         BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
         Graphics2D g2 = img.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
         g2.setColor(Color.WHITE);
         g2.fillRoundRect(0, 0, width, height, 8, 8);
@@ -81,15 +270,37 @@ public class CardImageCache {
         g2.setStroke(new BasicStroke(2));
         g2.drawRoundRect(1, 1, width-2, height-2, 8, 8);
 
-        g2.setColor(Color.LIGHT_GRAY);
-        g2.setFont(new Font("Arial", Font.BOLD, 24));
+        boolean red = suit == 'H' || suit == 'D';
+        g2.setColor(red ? new Color(200, 0, 0) : Color.BLACK);
+        String symbol = getSuitSymbol(suit);
+
+        g2.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 14));
         FontMetrics fm = g2.getFontMetrics();
-        String text = "?";
-        int textWidth = fm.stringWidth(text);
-        int textHeight = fm.getHeight();
-        g2.drawString(text, (width - textWidth) / 2, (height + textHeight) / 2 - 5);
+        g2.drawString(rank, 5, 16);
+        g2.drawString(symbol, 5, 30);
+        g2.drawString(rank, width - 5 - fm.stringWidth(rank), height - 8);
+        g2.drawString(symbol, width - 5 - fm.stringWidth(symbol), height - 22);
+
+        g2.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 32));
+        fm = g2.getFontMetrics();
+        g2.drawString(symbol, (width - fm.stringWidth(symbol)) / 2, (height + fm.getAscent()) / 2 - 4);
 
         g2.dispose();
         return img;
     }
+
+    private static String getSuitSymbol(char suit) {
+        switch (suit) {
+            case 'H':
+                return "♥";
+            case 'D':
+                return "♦";
+            case 'C':
+                return "♣";
+            case 'S':
+                return "♠";
+            default:
+                return "?";
+        }
+    }
 }
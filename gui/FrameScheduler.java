@@ -0,0 +1,189 @@
+package solitaire.gui;
+
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One frame clock for every animation and timed callback in the UI.
+ *
+ * All work is driven from a single non-repeating Swing timer that is re-armed
+ * for the earliest pending deadline, so nothing wakes up while no task is
+ * registered. Animations receive the frame time and are expected to compute
+ * their progress from it; when a frame runs late the missed frames are simply
+ * skipped instead of being queued up.
+ *
+ * Must only be used from the Event Dispatch Thread.
+ */
+public final class FrameScheduler {
+
+    public static final int FRAME_MILLIS = 16;
+    private static final long FRAME_NANOS = FRAME_MILLIS * 1_000_000L;
+
+    private static final FrameScheduler INSTANCE = new FrameScheduler();
+
+    public interface FrameCallback {
+        // Return true to keep receiving frames, false when finished.
+        boolean onFrame(long frameTimeNanos);
+    }
+
+    public static final class Task {
+        private final FrameCallback callback;
+        private final long periodNanos;
+        private final boolean animation;
+        private long dueNanos;
+        private boolean active = true;
+
+        private Task(FrameCallback callback, long periodNanos, long dueNanos, boolean animation) {
+            this.callback = callback;
+            this.periodNanos = periodNanos;
+            this.dueNanos = dueNanos;
+            this.animation = animation;
+        }
+
+        public void cancel() {
+            active = false;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+    }
+
+    private final List<Task> tasks = new ArrayList<>();
+    private final Timer timer;
+    // Start of the last frame that ran an animation still running after it;
+    // 0 when no animation is in progress. Frames are only missed between
+    // consecutive animation frames, not while just a timer is pending.
+    private long lastAnimationFrameNanos = 0;
+    private long frameCount = 0;
+    private long skippedFrames = 0;
+
+    private FrameScheduler() {
+        timer = new Timer(FRAME_MILLIS, e -> runFrame());
+        timer.setRepeats(false);
+    }
+
+    public static FrameScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    // Runs the callback on every frame until it returns false or is cancelled.
+    public Task animate(FrameCallback callback) {
+        return add(new Task(callback, 0, System.nanoTime(), true));
+    }
+
+    // Runs the action once after the given delay.
+    public Task schedule(Runnable action, int delayMillis) {
+        FrameCallback callback = now -> {
+            action.run();
+            return false;
+        };
+        return add(new Task(callback, 0, System.nanoTime() + delayMillis * 1_000_000L, false));
+    }
+
+    // Runs the action every period; late periods are dropped, not replayed.
+    public Task scheduleRepeating(Runnable action, int periodMillis) {
+        return scheduleRepeating(action, periodMillis, periodMillis);
+    }
+
+    public Task scheduleRepeating(Runnable action, int initialDelayMillis, int periodMillis) {
+        FrameCallback callback = now -> {
+            action.run();
+            return true;
+        };
+        long period = Math.max(1, periodMillis) * 1_000_000L;
+        return add(new Task(callback, period, System.nanoTime() + initialDelayMillis * 1_000_000L, false));
+    }
+
+    public boolean isIdle() {
+        return tasks.isEmpty();
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+    private Task add(Task task) {
+        tasks.add(task);
+        rearm(System.nanoTime());
+        return task;
+    }
+
+    private void runFrame() {
+        long frameStart = System.nanoTime();
+        frameCount++;
+
+        // Snapshot so callbacks may add or cancel tasks while we iterate.
+        List<Task> due = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.active && task.dueNanos <= frameStart) {
+                due.add(task);
+            }
+        }
+
+        boolean animating = false;
+        for (Task task : due) {
+            if (!task.active) {
+                continue;
+            }
+            animating |= task.animation;
+            boolean keep = task.callback.onFrame(frameStart);
+            if (!keep) {
+                task.active = false;
+            } else if (task.periodNanos > 0) {
+                long next = task.dueNanos + task.periodNanos;
+                if (next <= frameStart) {
+                    next = frameStart + task.periodNanos - (frameStart - task.dueNanos) % task.periodNanos;
+                }
+                task.dueNanos = next;
+            } else {
+                task.dueNanos = nextFrameBoundary(frameStart, System.nanoTime());
+            }
+        }
+
+        if (animating && lastAnimationFrameNanos != 0
+                && frameStart - lastAnimationFrameNanos > FRAME_NANOS * 3 / 2) {
+            skippedFrames += (frameStart - lastAnimationFrameNanos) / FRAME_NANOS - 1;
+        }
+        lastAnimationFrameNanos = 0;
+        for (Task task : tasks) {
+            if (task.active && task.animation) {
+                lastAnimationFrameNanos = frameStart;
+                break;
+            }
+        }
+
+        tasks.removeIf(task -> !task.active);
+        rearm(System.nanoTime());
+    }
+
+    // If a frame overran its budget, drop the frames it ate into.
+    private static long nextFrameBoundary(long frameStart, long now) {
+        long frames = Math.max(1, (now - frameStart + FRAME_NANOS - 1) / FRAME_NANOS);
+        return frameStart + frames * FRAME_NANOS;
+    }
+
+    private void rearm(long now) {
+        tasks.removeIf(task -> !task.active);
+        if (tasks.isEmpty()) {
+            timer.stop();
+            lastAnimationFrameNanos = 0;
+            return;
+        }
+
+        long earliest = Long.MAX_VALUE;
+        for (Task task : tasks) {
+            earliest = Math.min(earliest, task.dueNanos);
+        }
+
+        int delay = (int) Math.max(0, (earliest - now + 999_999) / 1_000_000L);
+        timer.stop();
+        timer.setInitialDelay(delay);
+        timer.start();
+    }
+}
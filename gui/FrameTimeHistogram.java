@@ -0,0 +1,84 @@
+package solitaire.gui;
+
+import java.util.Arrays;
+
+/**
+ * Log-scale histogram of frame render times.
+ *
+ * Bucket i counts frames that took less than 2^i * 125 microseconds, the
+ * last bucket catches everything slower. Recording is allocation free so it
+ * can run on every paint.
+ */
+public class FrameTimeHistogram {
+
+    private static final long BASE_NANOS = 125_000L;
+    private static final int BUCKETS = 10;
+
+    private final long[] counts = new long[BUCKETS];
+    private long frames = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+
+    public void record(long nanos) {
+        int bucket = 0;
+        long limit = BASE_NANOS;
+        while (bucket < BUCKETS - 1 && nanos >= limit) {
+            bucket++;
+            limit <<= 1;
+        }
+        counts[bucket]++;
+        frames++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public double getMeanMillis() {
+        return frames == 0 ? 0.0 : totalNanos / (double) frames / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos / 1_000_000.0;
+    }
+
+    // Upper bound of the bucket holding the given fraction of frames.
+    public double getPercentileMillis(double fraction) {
+        long target = (long) Math.ceil(frames * fraction);
+        long seen = 0;
+        long limit = BASE_NANOS;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target && frames > 0) {
+                return i == BUCKETS - 1 ? getMaxMillis() : Math.min(limit / 1_000_000.0, getMaxMillis());
+            }
+            limit <<= 1;
+        }
+        return getMaxMillis();
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        frames = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Frames: %d | mean %.2f ms | p50 <= %.2f ms | p95 <= %.2f ms | max %.2f ms%n",
+                frames, getMeanMillis(), getPercentileMillis(0.5), getPercentileMillis(0.95), getMaxMillis()));
+        long limit = BASE_NANOS;
+        for (int i = 0; i < BUCKETS; i++) {
+            String label = i == BUCKETS - 1
+                    ? String.format(">= %6.2f ms", (limit >> 1) / 1_000_000.0)
+                    : String.format(" < %6.2f ms", limit / 1_000_000.0);
+            sb.append(label).append(" | ").append(counts[i]).append(System.lineSeparator());
+            limit <<= 1;
+        }
+        return sb.toString();
+    }
+}
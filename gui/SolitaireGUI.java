@@ -1,7 +1,15 @@
 package solitaire.gui;
 
 import solitaire.model.Card;
+import solitaire.model.GameEvent;
+import solitaire.model.GameListener;
+import solitaire.model.MoveKind;
 import solitaire.model.SolitaireGame;
+import solitaire.solver.AnalysisCache;
+import solitaire.solver.AnalysisResult;
+import solitaire.solver.HintEngine;
+import solitaire.solver.HintService;
+import solitaire.solver.Position;
 
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
@@ -9,17 +17,39 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 public class SolitaireGUI extends JPanel {
 
-    private static final int CARD_WIDTH = 72;
-    private static final int CARD_HEIGHT = 96;
-    private static final int CARD_GAP = 25;
-    private static final int CARD_OVERLAP = 25;
-    private static final int FOUNDATION_GAP = 15;
-    private static final int SECTION_GAP = 80;     private static final int SCORE_PANEL_HEIGHT = 60; 
+    private static final int BASE_CARD_WIDTH = 72;
+    private static final int BASE_CARD_HEIGHT = 96;
+    private static final int BASE_CARD_GAP = 25;
+    private static final int BASE_CARD_OVERLAP = 25;
+    private static final int BASE_FOUNDATION_GAP = 15;
+    private static final int BASE_SECTION_GAP = 80;
+    private static final int BASE_PANEL_WIDTH = 1200;
+    private static final int BASE_PANEL_HEIGHT = 850;
+    private static final double MIN_CARD_SCALE = 0.75;
+    private static final double MAX_CARD_SCALE = 3.0;
+    private static final int SCORE_PANEL_HEIGHT = 60; 
+
+    // Card metrics follow the window size; see calculateDynamicPositions().
+    private int cardWidth = BASE_CARD_WIDTH;
+    private int cardHeight = BASE_CARD_HEIGHT;
+    private int cardGap = BASE_CARD_GAP;
+    private int cardOverlap = BASE_CARD_OVERLAP;
+    private int foundationGap = BASE_FOUNDATION_GAP;
+    private int sectionGap = BASE_SECTION_GAP;
 
     private int topSectionY = 70;
     private int tableauSectionY;
@@ -44,12 +74,91 @@ public class SolitaireGUI extends JPanel {
     private List<Card> draggedCards = new ArrayList<>();
     private Rectangle dragHighlightRect = null;
 
-    private Timer scoreUpdateTimer;
+    private static final long SNAP_BACK_NANOS = 160_000_000L;
+    private static final long AUTO_MOVE_NANOS = 220_000_000L;
+    private static final long FLIP_NANOS = 500_000_000L;
+    private static final int AUTO_COMPLETE_STEP_MILLIS = 120;
+    private static final long FINISH_STAGGER_NANOS = 60_000_000L;
+
+    private final List<CardFlight> flights = new ArrayList<>();
+    private final Map<Card, Long> flipStartTimes = new IdentityHashMap<>();
+    private Card hoverCard = null;
+    private FrameScheduler.Task animationTask;
+    private FrameScheduler.Task autoCompleteTask;
+
+    private FrameScheduler.Task clockTask;
+    private Window window;
+    // The game clock only runs while the window is open and focused.
+    private final WindowAdapter windowHandler = new WindowAdapter() {
+        @Override
+        public void windowIconified(WindowEvent e) {
+            pauseClock();
+        }
+
+        @Override
+        public void windowDeiconified(WindowEvent e) {
+            resumeClock();
+        }
+
+        @Override
+        public void windowLostFocus(WindowEvent e) {
+            pauseClock();
+        }
+
+        @Override
+        public void windowGainedFocus(WindowEvent e) {
+            resumeClock();
+        }
+    };
+    private Runnable firstFrameListener;
+
+    // Pile ids used by the layered renderer, shared with GameEvent.
+    private static final int STOCK_PILE = GameEvent.STOCK;
+    private static final int WASTE_PILE = GameEvent.WASTE;
+    private static final int FIRST_FOUNDATION = GameEvent.FIRST_FOUNDATION;
+    private static final int FIRST_TABLEAU = GameEvent.FIRST_TABLEAU;
+    private static final int PILE_COUNT = GameEvent.PILE_COUNT;
+    private static final int PILE_PADDING = 5;
+
+    private boolean layeredRendering = true;
+    private BufferedImage staticLayer;
+    private BufferedImage boardLayer;
+    private double layerScaleX = 1.0;
+    private double layerScaleY = 1.0;
+    // Piles whose cached board image is stale, one bit per pile id.
+    private int dirtyPiles = GameEvent.ALL_PILES;
+    private final GameListener gameListener = this::onGameChanged;
+    // Registered while the panel is displayed (and from construction on).
+    private boolean listening = false;
+    private long boardRedraws = 0;
+    private final FrameTimeHistogram frameTimes = new FrameTimeHistogram();
+
+    // Hints are analysed off the EDT after every change; H waits at most this long.
+    private static final long HINT_WAIT_MILLIS = 100;
+    // One cache for every game in this run; -Dsolitaire.analysisCache=<file> keeps
+    // settled positions between runs.
+    private static final AnalysisCache analysisCache = createAnalysisCache();
+    // Created in addNotify and shut down in removeNotify, so a re-added panel
+    // gets a working service again; null while the panel is not displayed.
+    private HintService hintService;
+    // Shift+H: one move from a time-boxed search; its table carries over between moves.
+    private static final long BEST_MOVE_BUDGET_MILLIS = 50;
+    // Checked on the hint thread after every change; a new game is offered
+    // once per game, then only noted.
+    private boolean deadEndOffered = false;
+
+    private String statusMessage;
+    private Color statusColor = Color.WHITE;
+    private FrameScheduler.Task statusTask;
     private Color scoreBackgroundColor = new Color(0, 0, 0, 120);
     private Font scoreFont = new Font("Arial", Font.BOLD, 14);
     private Font titleFont = new Font("Arial", Font.BOLD, 16);
 
     public SolitaireGUI() {
+        this(new SolitaireGame());
+    }
+
+    public SolitaireGUI(SolitaireGame game) {
         setPreferredSize(new Dimension(1200, 850));
         setBackground(new Color(0, 100, 0));
 
@@ -60,20 +169,34 @@ public class SolitaireGUI extends JPanel {
                     handleUndo();
                 } else if (e.getKeyCode() == KeyEvent.VK_N && e.isControlDown()) {
                     handleNewGame();
+                } else if (e.getKeyCode() == KeyEvent.VK_H && e.isShiftDown()) {
+                    showBestMove();
                 } else if (e.getKeyCode() == KeyEvent.VK_H) {
                     showHints();
+                } else if (e.getKeyCode() == KeyEvent.VK_A) {
+                    startAutoComplete();
+                } else if (e.getKeyCode() == KeyEvent.VK_P) {
+                    toggleAutoPlay();
+                } else if (e.getKeyCode() == KeyEvent.VK_F12) {
+                    System.out.println((layeredRendering ? "Layered" : "Full redraw")
+                            + " frame times:" + System.lineSeparator() + frameTimes);
+                    frameTimes.reset();
+                    System.out.println(analysisCache.getStats());
+                } else if (e.getKeyCode() == KeyEvent.VK_F11) {
+                    setLayeredRendering(!layeredRendering);
                 }
             }
         });
 
         setFocusable(true);
         requestFocusInWindow();
-        game = new SolitaireGame();
+        this.game = game;
+        game.addGameListener(gameListener);
+        listening = true;
 
         game.startGame();
 
-        scoreUpdateTimer = new Timer(1000, e -> repaint());
-        scoreUpdateTimer.start();
+        scheduleClockTick();
 
         MouseAdapter mouseHandler = new MouseAdapter() {
             @Override
@@ -106,22 +229,36 @@ public class SolitaireGUI extends JPanel {
 
     private void calculateDynamicPositions() {
         int panelWidth = getWidth();
+        int panelHeight = getHeight();
         if (panelWidth == 0) {
-            panelWidth = 1200; 
+            panelWidth = BASE_PANEL_WIDTH; 
+        }
+        if (panelHeight == 0) {
+            panelHeight = BASE_PANEL_HEIGHT;
         }
+
+        double scale = Math.min(panelWidth / (double) BASE_PANEL_WIDTH, panelHeight / (double) BASE_PANEL_HEIGHT);
+        scale = Math.max(MIN_CARD_SCALE, Math.min(MAX_CARD_SCALE, scale));
+        cardWidth = (int) Math.round(BASE_CARD_WIDTH * scale);
+        cardHeight = (int) Math.round(BASE_CARD_HEIGHT * scale);
+        cardGap = (int) Math.round(BASE_CARD_GAP * scale);
+        cardOverlap = (int) Math.round(BASE_CARD_OVERLAP * scale);
+        foundationGap = (int) Math.round(BASE_FOUNDATION_GAP * scale);
+        sectionGap = (int) Math.round(BASE_SECTION_GAP * scale);
         
-        int topSectionWidth = CARD_WIDTH + CARD_GAP + CARD_WIDTH + CARD_GAP + CARD_GAP
-                + (4 * CARD_WIDTH) + (3 * FOUNDATION_GAP);
+        int topSectionWidth = cardWidth + cardGap + cardWidth + cardGap + cardGap
+                + (4 * cardWidth) + (3 * foundationGap);
 
        
-        int tableauWidth = (7 * CARD_WIDTH) + (6 * CARD_GAP);
+        int tableauWidth = (7 * cardWidth) + (6 * cardGap);
 
       
         int maxWidth = Math.max(topSectionWidth, tableauWidth);
         leftMargin = Math.max(20, (panelWidth - maxWidth) / 2);
 
    
-        tableauSectionY = topSectionY + CARD_HEIGHT + SECTION_GAP;
+        tableauSectionY = topSectionY + cardHeight + sectionGap;
+        dirtyPiles = GameEvent.ALL_PILES;
     }
 
     @Override
@@ -160,9 +297,22 @@ public class SolitaireGUI extends JPanel {
     }
 
     private void handleMouseMoved(int x, int y) {
+        Card card = getCardAtPosition(x, y);
+        if (card != hoverCard) {
+            invalidatePileOf(hoverCard);
+            invalidatePileOf(card);
+            hoverCard = card;
+            setCursor(Cursor.getPredefinedCursor(card != null ? Cursor.HAND_CURSOR : Cursor.DEFAULT_CURSOR));
+            repaint();
+        }
     }
 
     private void startDrag(int x, int y, Card card) {
+        if (isInFlight(card)) {
+            return;
+        }
+        hoverCard = null;
+        setCursor(Cursor.getPredefinedCursor(Cursor.MOVE_CURSOR));
         draggedCard = card;
         dragStartX = x;
         dragStartY = y;
@@ -171,6 +321,7 @@ public class SolitaireGUI extends JPanel {
         isDragging = true;
 
         determineDragSource(card);
+        invalidatePileOf(card);
 
         System.out.println("Started dragging: " + card.getRank() + " of " + card.getSuit());
         repaint();
@@ -194,10 +345,10 @@ public class SolitaireGUI extends JPanel {
         }
 
         for (int col = 0; col < 7; col++) {
-            List<Card> pile = game.getTableauPile(col);
+            List<Card> pile = game.getTableauPileObject(col).view();
             for (int cardIndex = 0; cardIndex < pile.size(); cardIndex++) {
                 if (pile.get(cardIndex) == card && card.isFaceUp()) {
-                    if (isValidSequenceFromIndex(pile, cardIndex)) {
+                    if (game.getTableauPileObject(col).canMoveFrom(cardIndex)) {
                         dragSourceType = col + 1;
                         dragSourceIndex = col;
                         dragCardIndex = cardIndex;
@@ -216,7 +367,7 @@ public class SolitaireGUI extends JPanel {
     private Card getCardAtPosition(int x, int y) {
         for (int col = 0; col < 7; col++) {
             if (tableauRects[col] != null) {
-                List<Card> pile = game.getTableauPile(col);
+                List<Card> pile = game.getTableauPileObject(col).view();
                 for (int cardIndex = pile.size() - 1; cardIndex >= 0; cardIndex--) {
                     if (tableauRects[col][cardIndex] != null
                             && tableauRects[col][cardIndex].contains(x, y)) {
@@ -268,45 +419,22 @@ public class SolitaireGUI extends JPanel {
     }
 
     private Rectangle getTableauDropRect(int col) {
-        List<Card> pile = game.getTableauPile(col);
+        List<Card> pile = game.getTableauPileObject(col).view();
         if (pile.isEmpty()) {
             return tableauRects[col][0];
         } else {
             Rectangle lastCard = tableauRects[col][pile.size() - 1];
-            return new Rectangle(lastCard.x, lastCard.y + CARD_OVERLAP,
-                    CARD_WIDTH, CARD_HEIGHT);
+            return new Rectangle(lastCard.x, lastCard.y + cardOverlap,
+                    cardWidth, cardHeight);
         }
     }
 
     private boolean canDropOnFoundation(int foundationIndex) {
-        if (draggedCards.size() != 1) {
-            return false;
-        }
-
-        Card card = draggedCards.get(0);
-        Card.Suit foundationSuit = getFoundationSuit(foundationIndex);
-
-        if (card.getSuit() != foundationSuit) {
-            return false;
-        }
-
-        Card topFoundationCard = game.getTopFoundationCard(foundationIndex);
-        if (topFoundationCard == null) {
-            return card.getRank() == Card.Rank.ACE;
-        } else {
-            return card.getRank().ordinal() == topFoundationCard.getRank().ordinal() + 1;
-        }
+        return draggedCards.size() == 1 && game.canMoveToFoundation(draggedCards.get(0), foundationIndex);
     }
 
     private boolean canDropOnTableau(int tableauIndex) {
-        if (draggedCards.isEmpty()) {
-            return false;
-        }
-
-        Card bottomCard = draggedCards.get(0);
-        List<Card> targetPile = game.getTableauPile(tableauIndex);
-
-        return canPlaceOnTableau(bottomCard, targetPile);
+        return !draggedCards.isEmpty() && game.canMoveToTableau(draggedCards.get(0), tableauIndex);
     }
 
     private void completeDrag(int x, int y) {
@@ -334,75 +462,92 @@ public class SolitaireGUI extends JPanel {
         }
 
         System.out.println("Invalid drop location");
+        snapBack();
     }
 
-    private void executeMoveToFoundation(int foundationIndex) {
-        game.saveStateBeforeMove("Move to Foundation " + foundationIndex);
+    // Flies the dragged cards from the cursor back to where they were picked up.
+    private void snapBack() {
+        if (dragCurrentX == dragStartX && dragCurrentY == dragStartY) {
+            return;
+        }
 
-        Card cardToMove = null;
+        Rectangle source = null;
         if (dragSourceType == 0) {
-            cardToMove = game.removeFromWaste();
+            source = wasteRect;
         } else if (dragSourceType >= 1 && dragSourceType <= 7) {
-            cardToMove = game.removeFromTableau(dragSourceType - 1);
+            source = tableauRects[dragSourceType - 1][dragCardIndex];
         } else if (dragSourceType >= 10 && dragSourceType <= 13) {
-            cardToMove = game.removeFromFoundation(dragSourceType - 10);
+            source = foundationRects[dragSourceType - 10];
         }
 
-        if (cardToMove != null) {
-            game.addToFoundation(cardToMove, foundationIndex);
-            updateClickableAreas();
+        if (source != null) {
+            startFlight(draggedCards, dragCurrentX - cardWidth / 2, dragCurrentY - cardHeight / 2,
+                    source.x, source.y, SNAP_BACK_NANOS, 0);
+        }
+    }
 
-            if (game.isGameWon()) {
-                showWinDialog();
+    private void executeMoveToFoundation(int foundationIndex) {
+        game.beginUpdate();
+        try {
+            game.recordMove(dragSourceType == 0 ? MoveKind.WASTE_TO_FOUNDATION : MoveKind.TABLEAU_TO_FOUNDATION);
+
+            Card cardToMove = null;
+            if (dragSourceType == 0) {
+                cardToMove = game.removeFromWaste();
+            } else if (dragSourceType >= 1 && dragSourceType <= 7) {
+                cardToMove = game.removeFromTableau(dragSourceType - 1);
+            } else if (dragSourceType >= 10 && dragSourceType <= 13) {
+                cardToMove = game.removeFromFoundation(dragSourceType - 10);
             }
+
+            if (cardToMove != null) {
+                game.addToFoundation(cardToMove, foundationIndex);
+            }
+        } finally {
+            game.endUpdate();
         }
     }
 
     private void executeMoveToTableau(int tableauIndex) {
-        game.saveStateBeforeMove("Move to Tableau " + tableauIndex);
-
-        if (dragSourceType >= 1 && dragSourceType <= 7) {
-            int sourceCol = dragSourceType - 1;
-            if (sourceCol != tableauIndex) {
-                List<Card> cardsToMove = new ArrayList<>();
-                List<Card> sourcePile = game.getTableauPile(sourceCol);
-
-                for (int i = sourcePile.size() - 1; i >= dragCardIndex; i--) {
-                    Card card = game.removeFromTableau(sourceCol);
-                    if (card != null) {
-                        cardsToMove.add(0, card);
-                    }
+        game.beginUpdate();
+        try {
+            game.recordMove(dragSourceType == 0 ? MoveKind.WASTE_TO_TABLEAU
+                    : dragSourceType >= 10 ? MoveKind.FOUNDATION_TO_TABLEAU : MoveKind.TABLEAU_TO_TABLEAU);
+
+            if (dragSourceType >= 1 && dragSourceType <= 7) {
+                int sourceCol = dragSourceType - 1;
+                if (sourceCol != tableauIndex) {
+                    game.transferTableauRun(sourceCol, dragCardIndex, tableauIndex);
                 }
-
-                for (Card card : cardsToMove) {
+            } else if (dragSourceType == 0) {
+                Card card = game.removeFromWaste();
+                if (card != null) {
+                    game.addToTableau(card, tableauIndex);
+                }
+            } else if (dragSourceType >= 10 && dragSourceType <= 13) {
+                Card card = game.removeFromFoundation(dragSourceType - 10);
+                if (card != null) {
                     game.addToTableau(card, tableauIndex);
                 }
             }
-        } else if (dragSourceType == 0) {
-            Card card = game.removeFromWaste();
-            if (card != null) {
-                game.addToTableau(card, tableauIndex);
-            }
-        } else if (dragSourceType >= 10 && dragSourceType <= 13) {
-            Card card = game.removeFromFoundation(dragSourceType - 10);
-            if (card != null) {
-                game.addToTableau(card, tableauIndex);
-            }
+        } finally {
+            game.endUpdate();
         }
-
-        updateClickableAreas();
     }
 
     private void handleNonDragClick(int x, int y) {
         if (stockRect != null && stockRect.contains(x, y)) {
-            if (game.drawFromStock()) {
-                updateClickableAreas();
-                repaint();
-            }
+            game.drawFromStock();
         }
     }
 
     private void clearDragState() {
+        if (isDragging) {
+            setCursor(Cursor.getDefaultCursor());
+            for (Card card : draggedCards) {
+                invalidatePileOf(card);
+            }
+        }
         isDragging = false;
         draggedCard = null;
         draggedCards.clear();
@@ -418,47 +563,277 @@ public class SolitaireGUI extends JPanel {
 
         int stockX = leftMargin;
         int stockY = topSectionY;
-        stockRect = new Rectangle(stockX, stockY, CARD_WIDTH, CARD_HEIGHT);
+        stockRect = new Rectangle(stockX, stockY, cardWidth, cardHeight);
 
-        int wasteX = stockX + CARD_WIDTH + CARD_GAP;
+        int wasteX = stockX + cardWidth + cardGap;
         int wasteY = topSectionY;
-        wasteRect = new Rectangle(wasteX, wasteY, CARD_WIDTH, CARD_HEIGHT);
+        wasteRect = new Rectangle(wasteX, wasteY, cardWidth, cardHeight);
 
-        int foundationStartX = wasteX + CARD_WIDTH + CARD_GAP * 2;
+        int foundationStartX = wasteX + cardWidth + cardGap * 2;
         for (int i = 0; i < 4; i++) {
-            int fx = foundationStartX + i * (CARD_WIDTH + FOUNDATION_GAP);
+            int fx = foundationStartX + i * (cardWidth + foundationGap);
             int fy = topSectionY;
-            foundationRects[i] = new Rectangle(fx, fy, CARD_WIDTH, CARD_HEIGHT);
+            foundationRects[i] = new Rectangle(fx, fy, cardWidth, cardHeight);
         }
 
         for (int col = 0; col < 7; col++) {
-            List<Card> pile = game.getTableauPile(col);
-            int x = leftMargin + col * (CARD_WIDTH + CARD_GAP);
-            int y = tableauSectionY;
+            updateTableauRects(col);
+        }
+    }
 
-            int rectCount = Math.max(1, pile.size());
-            tableauRects[col] = new Rectangle[rectCount];
+    private void updateTableauRects(int col) {
+        int size = game.getTableauPileObject(col).size();
+        int x = leftMargin + col * (cardWidth + cardGap);
+        int y = tableauSectionY;
 
-            if (pile.isEmpty()) {
-                tableauRects[col][0] = new Rectangle(x, y, CARD_WIDTH, CARD_HEIGHT);
-            } else {
-                for (int i = 0; i < pile.size(); i++) {
-                    tableauRects[col][i] = new Rectangle(x, y, CARD_WIDTH, CARD_HEIGHT);
-                    y += CARD_OVERLAP;
-                }
+        tableauRects[col] = new Rectangle[Math.max(1, size)];
+        if (size == 0) {
+            tableauRects[col][0] = new Rectangle(x, y, cardWidth, cardHeight);
+        } else {
+            for (int i = 0; i < size; i++) {
+                tableauRects[col][i] = new Rectangle(x, y, cardWidth, cardHeight);
+                y += cardOverlap;
+            }
+        }
+    }
+
+    // Applies a model change: only the piles it touched are redrawn.
+    private void onGameChanged(GameEvent event) {
+        int changed = event.getChangedPiles();
+        // Foundation tops decide which cards get the "playable" glow everywhere.
+        if (event.isFoundationChanged()) {
+            changed = GameEvent.ALL_PILES;
+        }
+        dirtyPiles |= changed;
+
+        for (int col = 0; col < 7; col++) {
+            if (event.isPileChanged(GameEvent.tableau(col))) {
+                updateTableauRects(col);
+            }
+        }
+
+        if (!event.getFlippedCards().isEmpty()) {
+            long now = System.nanoTime();
+            for (Card card : event.getFlippedCards()) {
+                flipStartTimes.put(card, now);
             }
+            ensureAnimating();
+        }
+
+        repaint();
+        Position position = Position.of(game);
+        if (hintService != null) {
+            hintService.positionChanged(position);
+            long fingerprint = position.fingerprint();
+            hintService.checkDeadEnd(position, () -> SwingUtilities.invokeLater(() -> {
+                if (Position.of(game).fingerprint() == fingerprint) {
+                    handleDeadEnd();
+                }
+            }));
+        }
+
+        if (clockTask == null || !clockTask.isActive()) {
+            scheduleClockTick();
+        }
+
+        if (event.isWon()) {
+            int winBonus = event.getWinBonus();
+            // A finishing sequence starts its flights after this event; let them land first.
+            SwingUtilities.invokeLater(() -> FrameScheduler.getInstance()
+                    .schedule(() -> showWinDialog(winBonus), remainingFlightMillis()));
         }
     }
 
+    private int remainingFlightMillis() {
+        long now = System.nanoTime();
+        long remaining = 0;
+        for (CardFlight flight : flights) {
+            remaining = Math.max(remaining, flight.startNanos + flight.durationNanos - now);
+        }
+        return (int) (remaining / 1_000_000L);
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        drawBackground((Graphics2D) g);
-
+        long frameStart = System.nanoTime();
         Graphics2D g2 = (Graphics2D) g;
+
+        if (layeredRendering) {
+            composeLayers(g2);
+            applyQualityHints(g2);
+        } else {
+            super.paintComponent(g);
+            drawBackground(g2);
+            applyQualityHints(g2);
+            drawSlots(g2);
+            for (int pile = 0; pile < PILE_COUNT; pile++) {
+                drawPile(g2, pile);
+            }
+        }
+
+        drawOverlay(g2);
+        frameTimes.record(System.nanoTime() - frameStart);
+
+        if (firstFrameListener != null) {
+            Runnable listener = firstFrameListener;
+            firstFrameListener = null;
+            SwingUtilities.invokeLater(listener);
+        }
+    }
+
+    private static void applyQualityHints(Graphics2D g2) {
         g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+
+    // Blits the cached felt/slot layer and the cards-at-rest layer, redrawing
+    // only the piles whose contents changed since the last frame.
+    private void composeLayers(Graphics2D g2) {
+        AffineTransform transform = g2.getTransform();
+        double scaleX = transform.getScaleX();
+        double scaleY = transform.getScaleY();
+        int layerWidth = (int) Math.ceil(getWidth() * scaleX);
+        int layerHeight = (int) Math.ceil(getHeight() * scaleY);
+        if (layerWidth <= 0 || layerHeight <= 0) {
+            return;
+        }
+
+        boolean resized = staticLayer == null || staticLayer.getWidth() != layerWidth
+                || staticLayer.getHeight() != layerHeight || layerScaleX != scaleX || layerScaleY != scaleY;
+        if (resized) {
+            layerScaleX = scaleX;
+            layerScaleY = scaleY;
+            staticLayer = new BufferedImage(layerWidth, layerHeight, BufferedImage.TYPE_INT_RGB);
+            boardLayer = new BufferedImage(layerWidth, layerHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+
+            Graphics2D sg = createLayerGraphics(staticLayer);
+            drawBackground(sg);
+            applyQualityHints(sg);
+            drawSlots(sg);
+            sg.dispose();
+        }
+
+        Graphics2D bg = null;
+        for (int pile = 0; pile < PILE_COUNT; pile++) {
+            if (resized || (dirtyPiles & (1 << pile)) != 0) {
+                if (bg == null) {
+                    bg = createLayerGraphics(boardLayer);
+                    applyQualityHints(bg);
+                }
+                Rectangle region = getPileRegion(pile);
+                bg.setClip(region);
+                bg.setComposite(AlphaComposite.Clear);
+                bg.fillRect(region.x, region.y, region.width, region.height);
+                bg.setComposite(AlphaComposite.SrcOver);
+                drawPile(bg, pile);
+                boardRedraws++;
+            }
+        }
+        dirtyPiles = 0;
+        if (bg != null) {
+            bg.dispose();
+        }
+
+        Point2D origin = transform.transform(new Point2D.Double(0, 0), null);
+        g2.setTransform(new AffineTransform());
+        g2.drawImage(staticLayer, (int) Math.round(origin.getX()), (int) Math.round(origin.getY()), null);
+        g2.drawImage(boardLayer, (int) Math.round(origin.getX()), (int) Math.round(origin.getY()), null);
+        g2.setTransform(transform);
+    }
+
+    private Graphics2D createLayerGraphics(BufferedImage layer) {
+        Graphics2D g = layer.createGraphics();
+        g.scale(layerScaleX, layerScaleY);
+        return g;
+    }
+
+    // Screen area a pile may touch, including shadows and glows around its cards.
+    private Rectangle getPileRegion(int pile) {
+        Rectangle slot = getPileSlot(pile);
+        int bottom = pile >= FIRST_TABLEAU ? getHeight() : slot.y + slot.height + PILE_PADDING;
+        return new Rectangle(slot.x - PILE_PADDING, slot.y - PILE_PADDING,
+                slot.width + PILE_PADDING * 2, bottom - slot.y + PILE_PADDING);
+    }
+
+    private Rectangle getPileSlot(int pile) {
+        if (pile == STOCK_PILE) {
+            return stockRect;
+        } else if (pile == WASTE_PILE) {
+            return wasteRect;
+        } else if (pile < FIRST_TABLEAU) {
+            return foundationRects[pile - FIRST_FOUNDATION];
+        }
+        return tableauRects[pile - FIRST_TABLEAU][0];
+    }
+
+    private List<Card> getPileCards(int pile) {
+        if (pile == STOCK_PILE) {
+            return game.getStockPile().view();
+        } else if (pile == WASTE_PILE) {
+            return game.getWastePile().view();
+        } else if (pile < FIRST_TABLEAU) {
+            return game.getFoundationPile(pile - FIRST_FOUNDATION).view();
+        }
+        return game.getTableauPileObject(pile - FIRST_TABLEAU).view();
+    }
+
+    // Marks the pile holding the card for redraw after a UI-only change
+    // such as hover, drag or an animation starting or ending.
+    private void invalidatePileOf(Card card) {
+        if (card == null) {
+            return;
+        }
+        for (int pile = 0; pile < PILE_COUNT; pile++) {
+            for (Card c : getPileCards(pile)) {
+                if (c == card) {
+                    dirtyPiles |= 1 << pile;
+                    return;
+                }
+            }
+        }
+    }
+
+    // Cards that are flying, flipping or under the cursor are drawn in the overlay.
+    private boolean isHiddenFromBoard(Card card) {
+        return isInFlight(card) || flipStartTimes.containsKey(card)
+                || (isDragging && draggedCards.contains(card));
+    }
+
+    private void drawSlots(Graphics2D g2) {
+        for (int pile = 0; pile < PILE_COUNT; pile++) {
+            Rectangle slot = getPileSlot(pile);
+            drawCardSlot(g2, slot.x, slot.y);
+        }
+    }
+
+    // Draws the cards at rest in one pile.
+    private void drawPile(Graphics2D g2, int pile) {
+        List<Card> cards = getPileCards(pile);
+        Rectangle slot = getPileSlot(pile);
 
+        if (pile >= FIRST_TABLEAU) {
+            int y = slot.y;
+            for (Card card : cards) {
+                if (!isHiddenFromBoard(card)) {
+                    drawCard(g2, card, slot.x, y, card.isFaceUp(), false);
+                }
+                y += cardOverlap;
+            }
+            return;
+        }
+
+        // Stacked piles only show their highest card still at rest.
+        for (int i = cards.size() - 1; i >= 0; i--) {
+            Card card = cards.get(i);
+            if (!isHiddenFromBoard(card)) {
+                drawCard(g2, card, slot.x, slot.y, pile != STOCK_PILE, false);
+                return;
+            }
+        }
+    }
+
+    // Everything that moves or changes between frames.
+    private void drawOverlay(Graphics2D g2) {
         drawScorePanel(g2);
 
         if (dragHighlightRect != null) {
@@ -472,95 +847,109 @@ public class SolitaireGUI extends JPanel {
             g2.setStroke(new BasicStroke(1));
         }
 
-        int stockX = leftMargin;
-        int stockY = topSectionY;
-        drawCardSlot(g2, stockX, stockY);
-        Card stockCard = game.getTopStockCard();
-        if (stockCard != null) {
-            drawCard(g2, stockCard, stockX, stockY, false, false);
-        }
-
-        int wasteX = stockX + CARD_WIDTH + CARD_GAP;
-        int wasteY = topSectionY;
-        drawCardSlot(g2, wasteX, wasteY);
-        Card wasteCard = game.getTopWasteCard();
-        boolean wasteBeingDragged = (isDragging && dragSourceType == 0);
-        if (wasteCard != null && !wasteBeingDragged) {
-            drawCard(g2, wasteCard, wasteX, wasteY, true, false);
+        for (int col = 0; col < 7; col++) {
+            List<Card> pile = game.getTableauPileObject(col).view();
+            for (int j = 0; j < pile.size(); j++) {
+                Card card = pile.get(j);
+                if (flipStartTimes.containsKey(card) && !isInFlight(card)) {
+                    drawCard(g2, card, tableauRects[col][j].x, tableauRects[col][j].y, true, false);
+                }
+            }
         }
 
-        int foundationStartX = wasteX + CARD_WIDTH + CARD_GAP * 2;
-        for (int i = 0; i < 4; i++) {
-            int fx = foundationStartX + i * (CARD_WIDTH + FOUNDATION_GAP);
-            int fy = topSectionY;
-            drawCardSlot(g2, fx, fy);
-            Card foundationCard = game.getTopFoundationCard(i);
-            boolean foundationBeingDragged = (isDragging && dragSourceType == 10 + i);
-            if (foundationCard != null && !foundationBeingDragged) {
-                drawCard(g2, foundationCard, fx, fy, true, false);
+        long now = System.nanoTime();
+        // Flights still waiting to start sit where they were, newest underneath.
+        for (int f = flights.size() - 1; f >= 0; f--) {
+            CardFlight flight = flights.get(f);
+            if (now < flight.startNanos) {
+                for (int i = 0; i < flight.cards.size(); i++) {
+                    drawCard(g2, flight.cards.get(i), flight.fromX, flight.fromY + i * cardOverlap, true, false);
+                }
             }
         }
-
-        for (int i = 0; i < 7; i++) {
-            List<Card> pile = game.getTableauPile(i);
-            int x = leftMargin + i * (CARD_WIDTH + CARD_GAP);
-            int y = tableauSectionY;
-
-            if (pile.isEmpty()) {
-                drawCardSlot(g2, x, y);
+        for (CardFlight flight : flights) {
+            if (now < flight.startNanos) {
+                continue;
             }
-
-            for (int j = 0; j < pile.size(); j++) {
-                Card card = pile.get(j);
-
-                boolean cardBeingDragged = (isDragging && dragSourceType == i + 1
-                        && dragCardIndex >= 0 && j >= dragCardIndex);
-
-                if (!cardBeingDragged) {
-                    drawCard(g2, card, x, y, card.isFaceUp(), false);
-                }
-                y += CARD_OVERLAP;
+            double t = flight.progress(now);
+            int fx = (int) (flight.fromX + (flight.toX - flight.fromX) * t);
+            int fy = (int) (flight.fromY + (flight.toY - flight.fromY) * t);
+            for (int i = 0; i < flight.cards.size(); i++) {
+                drawCard(g2, flight.cards.get(i), fx, fy + i * cardOverlap, true, false);
             }
         }
 
         if (isDragging && !draggedCards.isEmpty()) {
-            int dragX = dragCurrentX - CARD_WIDTH / 2;
-            int dragY = dragCurrentY - CARD_HEIGHT / 2;
+            int dragX = dragCurrentX - cardWidth / 2;
+            int dragY = dragCurrentY - cardHeight / 2;
 
             for (int i = 0; i < draggedCards.size(); i++) {
                 Card card = draggedCards.get(i);
 
                 g2.setColor(new Color(0, 0, 0, 150));
-                g2.fillRoundRect(dragX + 6, dragY + 6 + (i * CARD_OVERLAP),
-                        CARD_WIDTH, CARD_HEIGHT, 10, 10);
+                g2.fillRoundRect(dragX + 6, dragY + 6 + (i * cardOverlap),
+                        cardWidth, cardHeight, 10, 10);
 
-                drawCard(g2, card, dragX, dragY + (i * CARD_OVERLAP), true, true);
+                drawCard(g2, card, dragX, dragY + (i * cardOverlap), true, true);
             }
         }
 
+        drawStatusMessage(g2);
         drawBottomInfo(g2);
     }
 
+    private void drawStatusMessage(Graphics2D g2) {
+        if (statusMessage == null) {
+            return;
+        }
+
+        int boxX = getWidth() / 2 - 150;
+        int boxY = getHeight() - 100;
+        g2.setColor(new Color(0, 0, 0, 180));
+        g2.fillRect(boxX, boxY, 300, 40);
+
+        g2.setFont(new Font("Arial", Font.BOLD, 14));
+        FontMetrics fm = g2.getFontMetrics();
+        g2.setColor(statusColor);
+        g2.drawString(statusMessage, boxX + (300 - fm.stringWidth(statusMessage)) / 2,
+                boxY + (40 - fm.getHeight()) / 2 + fm.getAscent());
+    }
+
+    public void setLayeredRendering(boolean layeredRendering) {
+        this.layeredRendering = layeredRendering;
+        staticLayer = null;
+        repaint();
+    }
+
+    public FrameTimeHistogram getFrameTimes() {
+        return frameTimes;
+    }
+
+    public long getBoardRedraws() {
+        return boardRedraws;
+    }
+
+    // Runs once, after the first frame has been painted and input can be handled.
+    public void setFirstFrameListener(Runnable listener) {
+        this.firstFrameListener = listener;
+    }
+
     private String formatScore(int score) {
         return String.format("%,d", score);
     }
 
     private int getTotalFoundationCards() {
-        int total = 0;
-        for (int i = 0; i < 4; i++) {
-            total += game.getFoundationSize(i);
-        }
-        return total;
+        return game.getFoundationCardCount();
     }
 
     private void drawCardSlot(Graphics2D g2, int x, int y) {
         g2.setColor(new Color(255, 255, 255, 60));
         g2.setStroke(new BasicStroke(2, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND, 0, new float[]{5, 5}, 0));
-        g2.drawRoundRect(x, y, CARD_WIDTH, CARD_HEIGHT, 10, 10);
+        g2.drawRoundRect(x, y, cardWidth, cardHeight, 10, 10);
         g2.setStroke(new BasicStroke(1));
 
         g2.setColor(new Color(255, 255, 255, 20));
-        g2.fillRoundRect(x + 2, y + 2, CARD_WIDTH - 4, CARD_HEIGHT - 4, 8, 8);
+        g2.fillRoundRect(x + 2, y + 2, cardWidth - 4, cardHeight - 4, 8, 8);
     }
 
     private void drawBottomInfo(Graphics2D g2) {
@@ -568,7 +957,7 @@ public class SolitaireGUI extends JPanel {
         g2.setFont(new Font("Arial", Font.PLAIN, 12));
         FontMetrics fm = g2.getFontMetrics();
 
-        String info = "Controls: Ctrl+Z = Undo | Ctrl+N = New Game | H = Hints";
+        String info = "Controls: Ctrl+Z = Undo | Ctrl+N = New Game | H = Hints | Shift+H = Best move | A = Auto-complete | P = Auto-play";
         if (selectedCard != null) {
             info += " | Selected: " + selectedCard.getRank() + " of " + selectedCard.getSuit();
         }
@@ -601,73 +990,152 @@ public class SolitaireGUI extends JPanel {
         }
     }
 
-    private boolean isValidSequenceFromIndex(List<Card> pile, int startIndex) {
-        if (startIndex < 0 || startIndex >= pile.size()) {
-            return false;
+    private static final class CardFlight {
+        final List<Card> cards;
+        final int fromX, fromY, toX, toY;
+        final long startNanos;
+        final long durationNanos;
+
+        CardFlight(List<Card> cards, int fromX, int fromY, int toX, int toY, long startNanos, long durationNanos) {
+            this.cards = cards;
+            this.fromX = fromX;
+            this.fromY = fromY;
+            this.toX = toX;
+            this.toY = toY;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
         }
 
-        Card startCard = pile.get(startIndex);
-        if (!startCard.isFaceUp()) {
-            return false;
+        double progress(long now) {
+            double t = Math.max(0.0, Math.min(1.0, (now - startNanos) / (double) durationNanos));
+            return t < 0.5 ? 2 * t * t : -1 + (4 - 2 * t) * t;
         }
 
-        if (startIndex == pile.size() - 1) {
-            return true;
+        boolean isFinished(long now) {
+            return now - startNanos >= durationNanos;
         }
+    }
 
-        for (int i = startIndex; i < pile.size() - 1; i++) {
-            Card current = pile.get(i);
-            Card next = pile.get(i + 1);
+    private void startFlight(List<Card> cards, int fromX, int fromY, int toX, int toY,
+            long durationNanos, long delayNanos) {
+        flights.add(new CardFlight(new ArrayList<>(cards), fromX, fromY, toX, toY,
+                System.nanoTime() + delayNanos, durationNanos));
+        for (Card card : cards) {
+            invalidatePileOf(card);
+        }
+        ensureAnimating();
+    }
 
-            if (!current.isFaceUp() || !next.isFaceUp()) {
-                return false;
+    private boolean isInFlight(Card card) {
+        for (CardFlight flight : flights) {
+            for (Card flying : flight.cards) {
+                if (flying == card) {
+                    return true;
+                }
             }
+        }
+        return false;
+    }
 
-            boolean differentColor = isRed(current) != isRed(next);
-            boolean descending = current.getRank().ordinal() == next.getRank().ordinal() + 1;
+    private void ensureAnimating() {
+        if (animationTask == null || !animationTask.isActive()) {
+            animationTask = FrameScheduler.getInstance().animate(this::onAnimationFrame);
+        }
+    }
 
-            if (!differentColor || !descending) {
+    private boolean onAnimationFrame(long now) {
+        flights.removeIf(flight -> {
+            if (!flight.isFinished(now)) {
                 return false;
             }
+            for (Card card : flight.cards) {
+                invalidatePileOf(card);
+            }
+            return true;
+        });
+        flipStartTimes.entrySet().removeIf(entry -> {
+            if (now - entry.getValue() < FLIP_NANOS) {
+                return false;
+            }
+            invalidatePileOf(entry.getKey());
+            return true;
+        });
+        repaint();
+        return !flights.isEmpty() || !flipStartTimes.isEmpty();
+    }
+
+    private void startAutoComplete() {
+        if (autoCompleteTask != null && autoCompleteTask.isActive()) {
+            return;
         }
+        if (game.canFinish()) {
+            finishGame();
+            return;
+        }
+        autoCompleteTask = FrameScheduler.getInstance().scheduleRepeating(() -> {
+            if (!autoCompleteStep()) {
+                autoCompleteTask.cancel();
+            }
+        }, 0, AUTO_COMPLETE_STEP_MILLIS);
+    }
 
-        return true;
+    // Plays the whole finishing sequence at once, then flies the cards up one
+    // after another on the shared animation timeline.
+    private void finishGame() {
+        Rectangle[][] columnRects = tableauRects.clone();
+        Rectangle stockFrom = stockRect;
+        Rectangle wasteFrom = wasteRect;
+
+        List<SolitaireGame.FinishingMove> sequence = game.finishGame();
+        long delay = 0;
+        for (SolitaireGame.FinishingMove move : sequence) {
+            int pile = move.getSourcePile();
+            Rectangle from = pile == STOCK_PILE ? stockFrom : pile == WASTE_PILE ? wasteFrom
+                    : columnRects[pile - FIRST_TABLEAU][move.getSourceIndex()];
+            Rectangle to = foundationRects[move.getFoundationIndex()];
+            List<Card> single = new ArrayList<>();
+            single.add(move.getCard());
+            startFlight(single, from.x, from.y, to.x, to.y, AUTO_MOVE_NANOS, delay);
+            delay += FINISH_STAGGER_NANOS;
+        }
     }
 
-    private boolean canPlaceOnTableau(Card card, List<Card> targetPile) {
-        if (targetPile.isEmpty()) {
-            return card.getRank() == Card.Rank.KING;
+    // Plays one card up to its foundation and flies it there.
+    private boolean autoCompleteStep() {
+        Map<Card, Rectangle> sources = new IdentityHashMap<>();
+        if (game.getTopWasteCard() != null) {
+            sources.put(game.getTopWasteCard(), wasteRect);
+        }
+        for (int col = 0; col < 7; col++) {
+            List<Card> pile = game.getTableauPileObject(col).view();
+            if (!pile.isEmpty()) {
+                sources.put(pile.get(pile.size() - 1), tableauRects[col][pile.size() - 1]);
+            }
         }
 
-        Card topCard = targetPile.get(targetPile.size() - 1);
-        if (!topCard.isFaceUp()) {
+        Card moved = game.autoCompleteStep();
+        if (moved == null) {
             return false;
         }
 
-        boolean differentColor = isRed(card) != isRed(topCard);
-        boolean descending = card.getRank().ordinal() == topCard.getRank().ordinal() - 1;
-
-        return differentColor && descending;
-    }
-
-    private boolean isRed(Card card) {
-        return card.getSuit() == Card.Suit.HEARTS || card.getSuit() == Card.Suit.DIAMONDS;
-    }
-
-    private Card.Suit getFoundationSuit(int index) {
-        Card.Suit[] suits = {Card.Suit.HEARTS, Card.Suit.SPADES, Card.Suit.DIAMONDS, Card.Suit.CLUBS};
-        if (index >= 0 && index < 4) {
-            return suits[index];
+        Rectangle from = sources.get(moved);
+        for (int i = 0; i < 4; i++) {
+            if (game.getTopFoundationCard(i) == moved && from != null) {
+                List<Card> single = new ArrayList<>();
+                single.add(moved);
+                startFlight(single, from.x, from.y, foundationRects[i].x, foundationRects[i].y,
+                        AUTO_MOVE_NANOS, 0);
+            }
         }
-        return null;
+        return true;
     }
 
     private void handleUndo() {
         if (game.canUndo()) {
             if (game.undo()) {
-                updateClickableAreas();
-                repaint();
-                showStatusMessage("Move undone! Score: -50 points", Color.ORANGE);
+                int penalty = game.getScoringMode().pointsFor(MoveKind.UNDO);
+                showStatusMessage(penalty == 0 ? "Move undone!" : "Move undone! Score: " + penalty + " points",
+                        Color.ORANGE);
             }
         } else {
             showStatusMessage("No moves to undo!", Color.RED);
@@ -684,31 +1152,66 @@ public class SolitaireGUI extends JPanel {
         );
 
         if (choice == JOptionPane.YES_OPTION) {
-            if (scoreUpdateTimer != null) {
-                scoreUpdateTimer.stop();
-            }
+            startNewGame();
+        }
+    }
 
-            SolitaireGUI newGui = new SolitaireGUI();
+    private void startNewGame() {
+        if (clockTask != null) {
+            clockTask.cancel();
+        }
+        if (autoCompleteTask != null) {
+            autoCompleteTask.cancel();
+        }
 
-            Container parent = getParent();
-            if (parent != null) {
-                parent.removeAll();
-                parent.add(newGui);
-                parent.revalidate();
-                parent.repaint();
-                newGui.requestFocusInWindow();
-            }
+        SolitaireGUI newGui = new SolitaireGUI(new SolitaireGame(game.getScoringMode(), game.getCarryOverScore()));
+
+        Container parent = getParent();
+        if (parent != null) {
+            parent.removeAll();
+            parent.add(newGui);
+            parent.revalidate();
+            parent.repaint();
+            newGui.requestFocusInWindow();
+        }
+    }
+
+    // A short look-ahead found nothing that helps; a longer line might.
+    private void handleDeadEnd() {
+        if (getParent() == null) {
+            return;
+        }
+        if (deadEndOffered) {
+            showStatusMessage("No useful moves found.", Color.RED);
+            return;
+        }
+        deadEndOffered = true;
+        int choice = JOptionPane.showConfirmDialog(
+                this,
+                "No useful moves found in the next few plays. Start a new game?",
+                "No Useful Moves",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.INFORMATION_MESSAGE
+        );
+
+        if (choice == JOptionPane.YES_OPTION) {
+            startNewGame();
         }
     }
 
     private void showHints() {
-        List<String> hints = generateHints();
+        Position position = Position.of(game);
+        AnalysisResult analysis = hintService.getAnalysis(position, HINT_WAIT_MILLIS);
+        List<String> hints = analysis.describe(position, 3);
         if (hints.isEmpty()) {
             showStatusMessage("No obvious moves available. Try drawing from stock!", Color.BLUE);
         } else {
             StringBuilder hintMessage = new StringBuilder("Possible moves:\n");
-            for (int i = 0; i < Math.min(3, hints.size()); i++) {
-                hintMessage.append("• ").append(hints.get(i)).append("\n");
+            for (String hint : hints) {
+                hintMessage.append("• ").append(hint).append("\n");
+            }
+            if (analysis.getSolvability() == AnalysisResult.Solvability.SOLVABLE) {
+                hintMessage.append("\nThis game can still be won.");
             }
 
             JOptionPane.showMessageDialog(
@@ -720,68 +1223,77 @@ public class SolitaireGUI extends JPanel {
         }
     }
 
-    private List<String> generateHints() {
-        List<String> hints = new ArrayList<>();
-
-        Card wasteCard = game.getTopWasteCard();
-        if (wasteCard != null) {
-            for (int i = 0; i < 4; i++) {
-                if (game.canMoveToFoundation(wasteCard, i)) {
-                    hints.add("Move " + wasteCard.getRank() + " of " + wasteCard.getSuit()
-                            + " from waste to foundation");
-                }
-            }
+    private void toggleAutoPlay() {
+        game.setAutoPlayEnabled(!game.isAutoPlayEnabled());
+        showStatusMessage(game.isAutoPlayEnabled() ? "Auto-play of safe cards: on" : "Auto-play of safe cards: off",
+                Color.WHITE);
+        if (game.isAutoPlayEnabled()) {
+            game.autoPlaySafeCards();
         }
+    }
 
-        for (int col = 0; col < 7; col++) {
-            List<Card> pile = game.getTableauPile(col);
-            if (!pile.isEmpty()) {
-                Card topCard = pile.get(pile.size() - 1);
-                if (topCard.isFaceUp()) {
-                    for (int i = 0; i < 4; i++) {
-                        if (game.canMoveToFoundation(topCard, i)) {
-                            hints.add("Move " + topCard.getRank() + " of " + topCard.getSuit()
-                                    + " from tableau " + (col + 1) + " to foundation");
-                        }
-                    }
-                }
-            }
+    private void showBestMove() {
+        Position position = Position.of(game);
+        long fingerprint = position.fingerprint();
+        AnalysisResult cached = analysisCache.get(fingerprint);
+        // Only an earlier Shift+H searches deeper than the hint ranking.
+        if (cached != null && cached.getDepth() > HintEngine.DEFAULT_DEPTH && cached.getMoveCount() > 0) {
+            showStatusMessage("Best move: " + position.describe(cached.getMove(0)), Color.YELLOW);
+            return;
+        }
+        if (hintService == null) {
+            return;
         }
+        // The search runs on the hint thread; the answer is dropped if the
+        // player has moved on by the time it arrives.
+        hintService.findBestMove(position, BEST_MOVE_BUDGET_MILLIS, analysis -> SwingUtilities.invokeLater(() -> {
+            if (Position.of(game).fingerprint() != fingerprint) {
+                return;
+            }
+            if (!analysis.hasMove()) {
+                showStatusMessage("No moves left in this position.", Color.BLUE);
+            } else {
+                showStatusMessage("Best move: " + analysis.getDescription(), Color.YELLOW);
+            }
+        }));
+    }
 
-        for (int sourceCol = 0; sourceCol < 7; sourceCol++) {
-            List<Card> sourcePile = game.getTableauPile(sourceCol);
-            for (int cardIndex = 0; cardIndex < sourcePile.size(); cardIndex++) {
-                Card card = sourcePile.get(cardIndex);
-                if (card.isFaceUp() && isValidSequenceFromIndex(sourcePile, cardIndex)) {
-                    for (int targetCol = 0; targetCol < 7; targetCol++) {
-                        if (sourceCol != targetCol) {
-                            List<Card> targetPile = game.getTableauPile(targetCol);
-                            if (canPlaceOnTableau(card, targetPile)) {
-                                hints.add("Move " + card.getRank() + " of " + card.getSuit()
-                                        + " from tableau " + (sourceCol + 1) + " to tableau " + (targetCol + 1));
-                            }
-                        }
-                    }
-                }
+    private static AnalysisCache createAnalysisCache() {
+        AnalysisCache cache = new AnalysisCache(4096);
+        String file = System.getProperty("solitaire.analysisCache");
+        if (file != null) {
+            try {
+                cache.setPersistenceFile(Paths.get(file));
+            } catch (IOException e) {
+                System.out.println("Could not load analysis cache: " + e.getMessage());
             }
+            // The frame exits the VM on close without removing this panel.
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    cache.flush();
+                } catch (IOException e) {
+                    System.out.println("Could not save analysis cache: " + e.getMessage());
+                }
+            }, "analysis-cache-flush"));
         }
-
-        return hints;
+        return cache;
     }
 
-    private void showWinDialog() {
+    private void showWinDialog(int winBonus) {
         SwingUtilities.invokeLater(() -> {
             String message = String.format(
                     "🎉 CONGRATULATIONS! 🎉\n\n"
                     + "You won the game!\n\n"
                     + "📊 FINAL STATISTICS:\n"
                     + "Score: %,d points\n"
+                    + "Win Bonus: %,d points\n"
                     + "Moves: %d\n"
                     + "Time: %s\n"
                     + "Perfect Score: %s\n\n"
                     + "🏆 ACHIEVEMENT UNLOCKED! 🏆\n"
                     + "%s",
                     game.getScore(),
+                    winBonus,
                     game.getMoves(),
                     game.getFormattedTime(),
                     isPerfectScore() ? "YES! ⭐" : "Not quite, but great job!",
@@ -841,30 +1353,17 @@ public class SolitaireGUI extends JPanel {
     }
 
     private void showStatusMessage(String message, Color color) {
-        JLabel statusLabel = new JLabel(message);
-        statusLabel.setForeground(color);
-        statusLabel.setFont(new Font("Arial", Font.BOLD, 14));
-        statusLabel.setOpaque(true);
-        statusLabel.setBackground(new Color(0, 0, 0, 180));
-        statusLabel.setBorder(BorderFactory.createEmptyBorder(10, 15, 10, 15));
-        statusLabel.setHorizontalAlignment(SwingConstants.CENTER);
-
-        statusLabel.setBounds(
-                getWidth() / 2 - 150,
-                getHeight() - 100,
-                300,
-                40
-        );
-
-        add(statusLabel);
+        statusMessage = message;
+        statusColor = color;
         repaint();
 
-        Timer removeTimer = new Timer(3000, e -> {
-            remove(statusLabel);
+        if (statusTask != null) {
+            statusTask.cancel();
+        }
+        statusTask = FrameScheduler.getInstance().schedule(() -> {
+            statusMessage = null;
             repaint();
-        });
-        removeTimer.setRepeats(false);
-        removeTimer.start();
+        }, 3000);
     }
 
     private void drawScorePanel(Graphics2D g2) {
@@ -969,82 +1468,129 @@ public class SolitaireGUI extends JPanel {
             return;
         }
 
+        Long flipStart = flipStartTimes.get(card);
+        if (flipStart != null) {
+            drawFlippingCard(g2, card, x, y, flipStart);
+            return;
+        }
+
         String filename = "back.png";
         if (showFaceUp && card.isFaceUp()) {
             filename = card.getImageFileName();
         }
 
-        Image img = CardImageCache.getCardImage(filename);
+        Image img = cardImageFor(g2, filename);
         if (img != null) {
             boolean isImportantCard = isImportantForFoundation(card);
             if (!selected) {
                 Color shadowColor = isImportantCard
                         ? new Color(255, 215, 0, 60) : new Color(0, 0, 0, 100);
                 g2.setColor(shadowColor);
-                g2.fillRoundRect(x + 4, y + 4, CARD_WIDTH, CARD_HEIGHT, 10, 10);
+                g2.fillRoundRect(x + 4, y + 4, cardWidth, cardHeight, 10, 10);
             }
 
             if (isImportantCard && showFaceUp && card.isFaceUp()) {
                 g2.setColor(new Color(255, 215, 0, 40));
-                g2.fillRoundRect(x - 2, y - 2, CARD_WIDTH + 4, CARD_HEIGHT + 4, 12, 12);
+                g2.fillRoundRect(x - 2, y - 2, cardWidth + 4, cardHeight + 4, 12, 12);
             }
 
             if (selected) {
                 long time = System.currentTimeMillis();
                 int alpha = (int) (180 + 75 * Math.sin(time / 200.0));
                 g2.setColor(new Color(255, 215, 0, alpha));
-                g2.fillRoundRect(x - 3, y - 3, CARD_WIDTH + 6, CARD_HEIGHT + 6, 12, 12);
+                g2.fillRoundRect(x - 3, y - 3, cardWidth + 6, cardHeight + 6, 12, 12);
                 g2.setStroke(new BasicStroke(3));
                 g2.setColor(new Color(255, 255, 0, 220));
-                g2.drawRoundRect(x - 3, y - 3, CARD_WIDTH + 6, CARD_HEIGHT + 6, 12, 12);
+                g2.drawRoundRect(x - 3, y - 3, cardWidth + 6, cardHeight + 6, 12, 12);
                 g2.setStroke(new BasicStroke(1));
             }
 
             Color borderColor = isImportantCard
                     ? new Color(255, 215, 0, 80) : new Color(255, 255, 255, 50);
             g2.setColor(borderColor);
-            g2.drawRoundRect(x - 1, y - 1, CARD_WIDTH + 2, CARD_HEIGHT + 2, 8, 8);
+            g2.drawRoundRect(x - 1, y - 1, cardWidth + 2, cardHeight + 2, 8, 8);
 
-            g2.drawImage(img, x, y, CARD_WIDTH, CARD_HEIGHT, this);
+            blitCard(g2, img, x, y);
 
             if (showFaceUp && card.isFaceUp()
                     && (card.getRank() == Card.Rank.ACE || card.getRank() == Card.Rank.KING)) {
                 g2.setColor(new Color(255, 215, 0, 200));
-                g2.fillOval(x + CARD_WIDTH - 15, y + 5, 10, 10);
+                g2.fillOval(x + cardWidth - 15, y + 5, 10, 10);
+            }
+
+            if (card == hoverCard && !selected) {
+                g2.setColor(new Color(255, 255, 0, 60));
+                g2.fillRoundRect(x, y, cardWidth, cardHeight, 8, 8);
             }
         } else {
             g2.setColor(Color.WHITE);
-            g2.fillRoundRect(x, y, CARD_WIDTH, CARD_HEIGHT, 8, 8);
+            g2.fillRoundRect(x, y, cardWidth, cardHeight, 8, 8);
             g2.setColor(Color.GRAY);
-            g2.drawRoundRect(x, y, CARD_WIDTH, CARD_HEIGHT, 8, 8);
+            g2.drawRoundRect(x, y, cardWidth, cardHeight, 8, 8);
 
             if (showFaceUp && card.isFaceUp()) {
-                g2.setColor(isRed(card) ? Color.RED : Color.BLACK);
+                g2.setColor(card.isRed() ? Color.RED : Color.BLACK);
                 g2.setFont(new Font("Arial", Font.BOLD, 12));
                 String cardText = card.getRank().toString().charAt(0)
                         + getSuitSymbol(card.getSuit());
                 FontMetrics fm = g2.getFontMetrics();
-                int textX = x + (CARD_WIDTH - fm.stringWidth(cardText)) / 2;
-                int textY = y + (CARD_HEIGHT + fm.getHeight()) / 2;
+                int textX = x + (cardWidth - fm.stringWidth(cardText)) / 2;
+                int textY = y + (cardHeight + fm.getHeight()) / 2;
                 g2.drawString(cardText, textX, textY);
             }
         }
     }
 
+    // Looks up the card art pre-scaled to this frame's device pixel size.
+    private Image cardImageFor(Graphics2D g2, String filename) {
+        AffineTransform transform = g2.getTransform();
+        int pixelWidth = (int) Math.round(cardWidth * transform.getScaleX());
+        int pixelHeight = (int) Math.round(cardHeight * transform.getScaleY());
+        Image img = CardImageCache.getCardImage(filename, pixelWidth, pixelHeight, this::repaint);
+        if (img == null) {
+            // This size is still being generated; use the source art until it lands.
+            img = CardImageCache.getCardImage(filename);
+        }
+        return img;
+    }
+
+    // Draws pre-scaled art 1:1 in device space so no resampling happens here.
+    private void blitCard(Graphics2D g2, Image img, int x, int y) {
+        AffineTransform transform = g2.getTransform();
+        int pixelWidth = (int) Math.round(cardWidth * transform.getScaleX());
+        int pixelHeight = (int) Math.round(cardHeight * transform.getScaleY());
+        if (img.getWidth(null) != pixelWidth || img.getHeight(null) != pixelHeight) {
+            g2.drawImage(img, x, y, cardWidth, cardHeight, this);
+            return;
+        }
+
+        Point2D device = transform.transform(new Point2D.Double(x, y), null);
+        g2.setTransform(new AffineTransform());
+        g2.drawImage(img, (int) Math.round(device.getX()), (int) Math.round(device.getY()), this);
+        g2.setTransform(transform);
+    }
+
+    // Squeezes the back to an edge, then opens the face out again.
+    private void drawFlippingCard(Graphics2D g2, Card card, int x, int y, long flipStart) {
+        double t = Math.min(1.0, (System.nanoTime() - flipStart) / (double) FLIP_NANOS);
+        boolean showFace = t >= 0.5;
+        double scaleX = showFace ? (t - 0.5) * 2 : 1.0 - t * 2;
+        int width = Math.max(1, (int) (cardWidth * scaleX));
+        int drawX = x + (cardWidth - width) / 2;
+
+        Image img = CardImageCache.getCardImage(showFace ? card.getImageFileName() : "back.png");
+        g2.setColor(new Color(0, 0, 0, 100));
+        g2.fillRoundRect(drawX + 4, y + 4, width, cardHeight, 10, 10);
+        g2.drawImage(img, drawX, y, width, cardHeight, this);
+    }
+
     private boolean isImportantForFoundation(Card card) {
         if (card == null || !card.isFaceUp()) {
             return false;
         }
 
-        if (card.getRank() == Card.Rank.ACE) {
-            return true;
-        }
-
         for (int i = 0; i < 4; i++) {
-            Card topFoundation = game.getTopFoundationCard(i);
-            if (topFoundation != null
-                    && card.getSuit() == topFoundation.getSuit()
-                    && card.getRank().ordinal() == topFoundation.getRank().ordinal() + 1) {
+            if (game.canMoveToFoundation(card, i)) {
                 return true;
             }
         }
@@ -1067,11 +1613,85 @@ public class SolitaireGUI extends JPanel {
         }
     }
 
+    // Repaints the score panel when the displayed second changes; stops while the clock is paused.
+    private void scheduleClockTick() {
+        if (clockTask != null) {
+            clockTask.cancel();
+            clockTask = null;
+        }
+        long wait = game.getClock().getNanosUntilNextSecond();
+        if (wait < 0) {
+            return;
+        }
+        clockTask = FrameScheduler.getInstance().schedule(() -> {
+            repaint(0, 0, getWidth(), SCORE_PANEL_HEIGHT + 10);
+            scheduleClockTick();
+        }, (int) ((wait + 999_999L) / 1_000_000L));
+    }
+
+    private void pauseClock() {
+        game.pauseClock();
+        scheduleClockTick();
+        repaint(0, 0, getWidth(), SCORE_PANEL_HEIGHT + 10);
+    }
+
+    private void resumeClock() {
+        game.resumeClock();
+        scheduleClockTick();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        window = SwingUtilities.getWindowAncestor(this);
+        if (window != null) {
+            window.addWindowListener(windowHandler);
+            window.addWindowFocusListener(windowHandler);
+        }
+        if (!listening) {
+            // Re-added after a removeNotify: catch up on the changes missed meanwhile.
+            game.addGameListener(gameListener);
+            listening = true;
+            dirtyPiles = GameEvent.ALL_PILES;
+            for (int col = 0; col < 7; col++) {
+                updateTableauRects(col);
+            }
+            scheduleClockTick();
+            repaint();
+        }
+        if (hintService == null) {
+            hintService = new HintService(3, analysisCache);
+            hintService.positionChanged(Position.of(game));
+        }
+    }
+
     @Override
     public void removeNotify() {
         super.removeNotify();
-        if (scoreUpdateTimer != null) {
-            scoreUpdateTimer.stop();
+        if (window != null) {
+            window.removeWindowListener(windowHandler);
+            window.removeWindowFocusListener(windowHandler);
+            window = null;
+        }
+        game.removeGameListener(gameListener);
+        listening = false;
+        if (clockTask != null) {
+            clockTask.cancel();
+        }
+        if (autoCompleteTask != null) {
+            autoCompleteTask.cancel();
+        }
+        if (animationTask != null) {
+            animationTask.cancel();
+        }
+        if (hintService != null) {
+            hintService.shutdown();
+            hintService = null;
+        }
+        try {
+            analysisCache.flush();
+        } catch (IOException e) {
+            System.out.println("Could not save analysis cache: " + e.getMessage());
         }
     }
 }    
\ No newline at end of file
@@ -33,7 +33,9 @@ public class Card {
         return faceUp;
     }
 
-    public void setFaceUp(boolean faceUp) {
+    // Package-private: face state changes only through Pile methods, which keep
+    // their indexes in step (see Pile.addCard(Card, boolean)).
+    void setFaceUp(boolean faceUp) {
         this.faceUp = faceUp;
     }
 
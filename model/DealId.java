@@ -0,0 +1,270 @@
+package solitaire.model;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Exact index of one of the 52! deck orderings, stored in 29 bytes.
+ *
+ * The ordering is written as its Lehmer code: digit i counts the cards after
+ * position i that sort below the card at i, and the digits are read as one
+ * mixed-radix number with radix 52 - i. That number is below 52! < 2^226.
+ *
+ * Cards are coded as suit.ordinal() * 13 + rank.ordinal(). Ranking and
+ * unranking work on eight 32-bit limbs and fold several radices into one
+ * multiply or divide whose factor still fits in an int, so a full unrank is
+ * about ten short passes over the limbs.
+ */
+public final class DealId {
+
+    public static final int CARDS = 52;
+    public static final int BYTES = 29;
+
+    private static final int LIMBS = 8;
+    private static final long MASK = 0xFFFFFFFFL;
+
+    // Positions grouped so that the product of their radices stays below 2^31.
+    // Group g covers positions GROUP_START[g] .. GROUP_START[g + 1] - 1.
+    private static final int[] GROUP_START;
+    private static final int[] GROUP_RADIX;
+    // floor((2^64 - 1) / radix) per group, so divMod multiplies instead of dividing.
+    private static final long[] GROUP_INVERSE;
+    // For the per-position radices 2..52, with s = 31 + ceil(log2(radix)):
+    // DIGIT_INVERSE[radix] = ceil(2^s / radix) < 2^32 and DIGIT_SHIFT[radix] = s,
+    // so for any value below 2^31, (value * inverse) >>> s is value / radix.
+    private static final long[] DIGIT_INVERSE = new long[CARDS + 1];
+    private static final int[] DIGIT_SHIFT = new int[CARDS + 1];
+    private static final Card.Suit[] SUITS = Card.Suit.values();
+    private static final Card.Rank[] RANKS = Card.Rank.values();
+
+    static {
+        int[] starts = new int[CARDS + 1];
+        int[] radices = new int[CARDS];
+        int groups = 0;
+        int end = CARDS;
+        while (end > 0) {
+            long product = 1;
+            int start = end;
+            while (start > 0 && product * (CARDS - (start - 1)) < Integer.MAX_VALUE) {
+                start--;
+                product *= CARDS - start;
+            }
+            starts[groups] = start;
+            radices[groups] = (int) product;
+            groups++;
+            end = start;
+        }
+        // Built from the back; store front to back.
+        GROUP_START = new int[groups + 1];
+        GROUP_RADIX = new int[groups];
+        for (int g = 0; g < groups; g++) {
+            GROUP_START[g] = starts[groups - 1 - g];
+            GROUP_RADIX[g] = radices[groups - 1 - g];
+        }
+        GROUP_START[groups] = CARDS;
+        GROUP_INVERSE = new long[groups];
+        for (int g = 0; g < groups; g++) {
+            GROUP_INVERSE[g] = Long.divideUnsigned(-1L, GROUP_RADIX[g]);
+        }
+        for (int radix = 2; radix <= CARDS; radix++) {
+            int shift = 31 + 32 - Integer.numberOfLeadingZeros(radix - 1);
+            DIGIT_SHIFT[radix] = shift;
+            DIGIT_INVERSE[radix] = ((1L << shift) + radix - 1) / radix;
+        }
+    }
+
+    private final byte[] bytes;
+
+    private DealId(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public static int cardCode(Card card) {
+        return card.getSuit().ordinal() * 13 + card.getRank().ordinal();
+    }
+
+    public static Card cardFromCode(int code) {
+        return new Card(SUITS[code / 13], RANKS[code % 13]);
+    }
+
+    // Ranks an ordering of the 52 card codes.
+    public static DealId rank(int[] order) {
+        if (order.length != CARDS) {
+            throw new IllegalArgumentException("Expected " + CARDS + " cards, got " + order.length);
+        }
+        int[] limbs = new int[LIMBS];
+        long remaining = (1L << CARDS) - 1;
+        int position = 0;
+        for (int g = 0; g < GROUP_RADIX.length; g++) {
+            long value = 0;
+            for (; position < GROUP_START[g + 1]; position++) {
+                int code = order[position];
+                long bit = 1L << code;
+                if (code < 0 || code >= CARDS || (remaining & bit) == 0) {
+                    throw new IllegalArgumentException("Not a permutation of the deck at position " + position);
+                }
+                value = value * (CARDS - position) + Long.bitCount(remaining & (bit - 1));
+                remaining &= ~bit;
+            }
+            mulAdd(limbs, GROUP_RADIX[g], (int) value);
+        }
+        return new DealId(toBytes(limbs));
+    }
+
+    public static DealId random(Random random) {
+        int[] order = new int[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            order[i] = i;
+        }
+        for (int i = CARDS - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return rank(order);
+    }
+
+    public static DealId fromBytes(byte[] source, int offset) {
+        byte[] copy = Arrays.copyOfRange(source, offset, offset + BYTES);
+        int[] limbs = fromBytes(copy);
+        if (!isBelowFactorial(limbs)) {
+            throw new IllegalArgumentException("Deal id out of range");
+        }
+        return new DealId(copy);
+    }
+
+    public static DealId parse(String hex) {
+        if (hex.length() != BYTES * 2) {
+            throw new IllegalArgumentException("Deal id must be " + BYTES * 2 + " hex digits");
+        }
+        byte[] parsed = new byte[BYTES];
+        for (int i = 0; i < BYTES; i++) {
+            parsed[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return fromBytes(parsed, 0);
+    }
+
+    // Writes the card codes of this ordering into order[0..51].
+    public void unrankInto(int[] order) {
+        int[] limbs = fromBytes(bytes);
+        int top = LIMBS - 1;
+        for (int g = GROUP_RADIX.length - 1; g >= 0; g--) {
+            while (top > 0 && limbs[top] == 0) {
+                top--;
+            }
+            long value = divMod(limbs, top, g);
+            // The last position has radix 1, so its digit is always 0.
+            for (int position = Math.min(GROUP_START[g + 1], CARDS - 1) - 1; position >= GROUP_START[g]; position--) {
+                int radix = CARDS - position;
+                long quotient = (value * DIGIT_INVERSE[radix]) >>> DIGIT_SHIFT[radix];
+                order[position] = (int) (value - quotient * radix);
+                value = quotient;
+            }
+        }
+        order[CARDS - 1] = 0;
+
+        // Lehmer digits back to card codes, right to left: each digit is the
+        // card's rank among those not yet placed, so every card placed after
+        // it at or above that value moves up by one. Branch-free inner loop.
+        for (int position = CARDS - 2; position >= 0; position--) {
+            int digit = order[position];
+            for (int j = position + 1; j < CARDS; j++) {
+                order[j] += (digit - order[j] - 1) >>> 31;
+            }
+        }
+    }
+
+    public int[] unrank() {
+        int[] order = new int[CARDS];
+        unrankInto(order);
+        return order;
+    }
+
+    public void writeTo(byte[] target, int offset) {
+        System.arraycopy(bytes, 0, target, offset, BYTES);
+    }
+
+    public byte[] toBytes() {
+        return bytes.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof DealId && Arrays.equals(bytes, ((DealId) other).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(BYTES * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static void mulAdd(int[] limbs, int factor, int addend) {
+        long carry = addend;
+        for (int i = 0; i < LIMBS; i++) {
+            long t = (limbs[i] & MASK) * factor + carry;
+            limbs[i] = (int) t;
+            carry = t >>> 32;
+        }
+    }
+
+    // Divides limbs[0..top] in place by group g's radix and returns the
+    // remainder. Each step is t < radix * 2^32 < 2^63, whose quotient the
+    // high half of t * GROUP_INVERSE[g] gives to within one.
+    private static long divMod(int[] limbs, int top, int g) {
+        long divisor = GROUP_RADIX[g];
+        long inverse = GROUP_INVERSE[g];
+        long remainder = 0;
+        for (int i = top; i >= 0; i--) {
+            long t = (remainder << 32) | (limbs[i] & MASK);
+            long quotient = Math.multiplyHigh(t, inverse);
+            remainder = t - quotient * divisor;
+            if (remainder >= divisor) {
+                quotient++;
+                remainder -= divisor;
+            }
+            limbs[i] = (int) quotient;
+        }
+        return remainder;
+    }
+
+    // Big-endian, most significant byte first.
+    private static byte[] toBytes(int[] limbs) {
+        byte[] out = new byte[BYTES];
+        for (int b = 0; b < BYTES; b++) {
+            out[BYTES - 1 - b] = (byte) (limbs[b >> 2] >>> ((b & 3) * 8));
+        }
+        return out;
+    }
+
+    private static int[] fromBytes(byte[] in) {
+        int[] limbs = new int[LIMBS];
+        for (int b = 0; b < BYTES; b++) {
+            limbs[b >> 2] |= (in[BYTES - 1 - b] & 0xFF) << ((b & 3) * 8);
+        }
+        return limbs;
+    }
+
+    // True when the value is a valid rank, i.e. below 52!.
+    private static boolean isBelowFactorial(int[] limbs) {
+        int[] copy = limbs.clone();
+        for (int g = GROUP_RADIX.length - 1; g >= 0; g--) {
+            divMod(copy, LIMBS - 1, g);
+        }
+        for (int limb : copy) {
+            if (limb != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
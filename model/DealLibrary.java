@@ -0,0 +1,157 @@
+package solitaire.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Read-only library of deals known to be winnable, memory-mapped from a file
+ * written by solitaire.solver.DealGenerator.
+ *
+ * Layout: a 24-byte header (magic "KSDL", version, record size, then the
+ * number of deals per Difficulty) followed by fixed 40-byte records grouped
+ * by difficulty. Each record is the 29-byte DealId, the solution length
+ * (short), search nodes (int), dead ends (int) and the grade (byte). Because
+ * records are fixed size and grouped, drawing a deal of a given difficulty is
+ * one random index and one 29-byte read.
+ */
+public class DealLibrary {
+
+    private static final int MAGIC = 0x4b53444c; // "KSDL"
+    private static final short VERSION = 1;
+    private static final int RECORD_SIZE = 40;
+    private static final Difficulty[] GRADES = Difficulty.values();
+    private static final int HEADER_SIZE = 8 + 4 * GRADES.length;
+
+    private final ByteBuffer records;
+    private final int[] counts = new int[GRADES.length];
+    private final int[] starts = new int[GRADES.length];
+
+    private DealLibrary(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION || buffer.getShort(6) != RECORD_SIZE) {
+            throw new IllegalArgumentException("Not a deal library");
+        }
+        int total = 0;
+        for (int g = 0; g < GRADES.length; g++) {
+            counts[g] = buffer.getInt(8 + 4 * g);
+            starts[g] = total;
+            total += counts[g];
+        }
+        if (buffer.capacity() != HEADER_SIZE + (long) total * RECORD_SIZE) {
+            throw new IllegalArgumentException("Deal library is truncated");
+        }
+        this.records = buffer;
+    }
+
+    public static DealLibrary open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new DealLibrary(buffer);
+        }
+    }
+
+    public static void write(Path path, List<Entry> entries) throws IOException {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(Entry::getDifficulty));
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + sorted.size() * RECORD_SIZE);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE);
+        int[] counts = new int[GRADES.length];
+        for (Entry entry : sorted) {
+            counts[entry.getDifficulty().ordinal()]++;
+        }
+        for (int count : counts) {
+            buffer.putInt(count);
+        }
+        byte[] id = new byte[DealId.BYTES];
+        for (Entry entry : sorted) {
+            entry.getDealId().writeTo(id, 0);
+            buffer.put(id)
+                    .putShort((short) Math.min(entry.getSolutionLength(), Short.MAX_VALUE))
+                    .putInt((int) Math.min(entry.getSearchNodes(), Integer.MAX_VALUE))
+                    .putInt((int) Math.min(entry.getDeadEnds(), Integer.MAX_VALUE))
+                    .put((byte) entry.getDifficulty().ordinal());
+        }
+        Files.write(path, buffer.array());
+    }
+
+    public int size() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public int size(Difficulty difficulty) {
+        return counts[difficulty.ordinal()];
+    }
+
+    public Entry entryAt(Difficulty difficulty, int index) {
+        if (index < 0 || index >= counts[difficulty.ordinal()]) {
+            throw new IndexOutOfBoundsException("No " + difficulty.getLabel() + " deal " + index);
+        }
+        int offset = HEADER_SIZE + (starts[difficulty.ordinal()] + index) * RECORD_SIZE;
+        byte[] id = new byte[DealId.BYTES];
+        records.get(offset, id);
+        int at = offset + DealId.BYTES;
+        return new Entry(DealId.fromBytes(id, 0), records.getShort(at), records.getInt(at + 2),
+                records.getInt(at + 6), GRADES[records.get(at + 10)]);
+    }
+
+    public DealId dealAt(Difficulty difficulty, int index) {
+        return entryAt(difficulty, index).getDealId();
+    }
+
+    public DealId draw(Difficulty difficulty, Random random) {
+        int count = counts[difficulty.ordinal()];
+        if (count == 0) {
+            throw new IllegalStateException("Library has no " + difficulty.getLabel() + " deals");
+        }
+        return dealAt(difficulty, random.nextInt(count));
+    }
+
+    public static class Entry {
+        private final DealId dealId;
+        private final int solutionLength;
+        private final long searchNodes;
+        private final long deadEnds;
+        private final Difficulty difficulty;
+
+        public Entry(DealId dealId, int solutionLength, long searchNodes, long deadEnds, Difficulty difficulty) {
+            this.dealId = dealId;
+            this.solutionLength = solutionLength;
+            this.searchNodes = searchNodes;
+            this.deadEnds = deadEnds;
+            this.difficulty = difficulty;
+        }
+
+        public DealId getDealId() {
+            return dealId;
+        }
+
+        public int getSolutionLength() {
+            return solutionLength;
+        }
+
+        public long getSearchNodes() {
+            return searchNodes;
+        }
+
+        public long getDeadEnds() {
+            return deadEnds;
+        }
+
+        public Difficulty getDifficulty() {
+            return difficulty;
+        }
+    }
+}
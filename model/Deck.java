@@ -15,6 +15,28 @@ public class Deck {
         System.out.println("Deck created with " + cards.size() + " cards");
     }
 
+    // Deck in the given order of card codes; cards are drawn from the end.
+    public Deck(int[] order) {
+        cards = new ArrayList<>(order.length);
+        for (int code : order) {
+            cards.add(DealId.cardFromCode(code));
+        }
+    }
+
+    public Deck(DealId dealId) {
+        this(dealId.unrank());
+    }
+
+    // Identifies the current order of the cards still in the deck; only
+    // meaningful while all 52 are present.
+    public DealId getDealId() {
+        int[] order = new int[cards.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = DealId.cardCode(cards.get(i));
+        }
+        return DealId.rank(order);
+    }
+
     private void initializeDeck() {
 
         for (Card.Suit suit : Card.Suit.values()) {
@@ -0,0 +1,34 @@
+package solitaire.model;
+
+/**
+ * Grade of a solvable deal, taken from how much searching the solver needed
+ * before it found a win. Easy deals fall out almost move by move; expert deals
+ * needed tens of thousands of positions explored.
+ */
+public enum Difficulty {
+    EASY("Easy", 250),
+    MEDIUM("Medium", 2_500),
+    HARD("Hard", 25_000),
+    EXPERT("Expert", Long.MAX_VALUE);
+
+    private final String label;
+    private final long maxSearchNodes;
+
+    Difficulty(String label, long maxSearchNodes) {
+        this.label = label;
+        this.maxSearchNodes = maxSearchNodes;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static Difficulty forSearchNodes(long nodes) {
+        for (Difficulty difficulty : values()) {
+            if (nodes <= difficulty.maxSearchNodes) {
+                return difficulty;
+            }
+        }
+        return EXPERT;
+    }
+}
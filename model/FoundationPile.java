@@ -7,32 +7,17 @@ public class FoundationPile extends Pile {
         this.suit = suit;
     }
 
+    // Foundation cards always lie face up, even when played straight from the stock.
     @Override
-    public boolean canAdd(Card card) {
-        if (card == null) return false;
-
-        if (card.getSuit() != suit) {
-            System.out.println("Card suit " + card.getSuit() + " doesn't match foundation suit " + suit);
-            return false;
-        }
-
-        Card top = topCard();
-
-        if (top == null) {
-            boolean canAdd = card.getRank() == Card.Rank.ACE;
-            if (!canAdd) {
-                System.out.println("Empty foundation requires ACE, got " + card.getRank());
-            }
-            return canAdd;
+    protected void cardsAdded(int fromIndex) {
+        for (int i = fromIndex; i < size(); i++) {
+            cardAt(i).setFaceUp(true);
         }
+    }
 
-        boolean canAdd = card.getRank().ordinal() == top.getRank().ordinal() + 1;
-        if (!canAdd) {
-            System.out.println("Invalid sequence: trying to place " + card.getRank() + 
-                             " on " + top.getRank() + ". Expected: " + 
-                             Card.Rank.values()[top.getRank().ordinal() + 1]);
-        }
-        return canAdd;
+    @Override
+    public boolean canAdd(Card card) {
+        return card != null && card.getSuit() == suit && card.canMoveToFoundation(topCard());
     }
 
     public Card.Suit getSuit() {
@@ -0,0 +1,87 @@
+package solitaire.model;
+
+/**
+ * Play time measured with System.nanoTime(), so it never jumps when the wall
+ * clock is changed. The clock can be paused (window minimized or unfocused,
+ * game won) and resumed without losing the time already played.
+ *
+ * The formatted text is cached and only rebuilt when the displayed second
+ * changes, so it is cheap to ask for on every paint.
+ */
+public class GameClock {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private boolean started = false;
+    private boolean paused = false;
+    private long accumulatedNanos = 0;
+    private long runningSince = 0;
+
+    private long formattedSecond = -1;
+    private String formatted = "0:00";
+
+    // Starts counting the first time it is called; later calls do nothing.
+    public void start() {
+        if (!started) {
+            started = true;
+            runningSince = System.nanoTime();
+        }
+    }
+
+    public void pause() {
+        if (isRunning()) {
+            accumulatedNanos += System.nanoTime() - runningSince;
+            paused = true;
+        }
+    }
+
+    public void resume() {
+        if (started && paused) {
+            runningSince = System.nanoTime();
+            paused = false;
+        }
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public boolean isRunning() {
+        return started && !paused;
+    }
+
+    public long getElapsedNanos() {
+        return isRunning() ? accumulatedNanos + System.nanoTime() - runningSince : accumulatedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return getElapsedNanos() / 1_000_000L;
+    }
+
+    public long getElapsedSeconds() {
+        return getElapsedNanos() / NANOS_PER_SECOND;
+    }
+
+    // Time until the displayed second changes, or -1 while the clock is stopped.
+    public long getNanosUntilNextSecond() {
+        if (!isRunning()) {
+            return -1;
+        }
+        return NANOS_PER_SECOND - getElapsedNanos() % NANOS_PER_SECOND;
+    }
+
+    public String getFormatted() {
+        long seconds = getElapsedSeconds();
+        if (seconds != formattedSecond) {
+            formattedSecond = seconds;
+            long minutes = seconds / 60;
+            long hours = minutes / 60;
+            if (hours > 0) {
+                formatted = String.format("%d:%02d:%02d", hours, minutes % 60, seconds % 60);
+            } else {
+                formatted = String.format("%d:%02d", minutes, seconds % 60);
+            }
+        }
+        return formatted;
+    }
+}
@@ -0,0 +1,82 @@
+package solitaire.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything that changed in a SolitaireGame during one action.
+ *
+ * Piles are identified by small ids so a whole batch of changes fits in one
+ * bit mask: the stock, the waste, then the four foundations and the seven
+ * tableau piles in index order.
+ */
+public final class GameEvent {
+
+    public static final int STOCK = 0;
+    public static final int WASTE = 1;
+    public static final int FIRST_FOUNDATION = 2;
+    public static final int FIRST_TABLEAU = 6;
+    public static final int PILE_COUNT = 13;
+    public static final int ALL_PILES = (1 << PILE_COUNT) - 1;
+
+    private final int changedPiles;
+    private final List<Card> flippedCards;
+    private final boolean scoreChanged;
+    private final boolean won;
+    private final int winBonus;
+    private final boolean undoApplied;
+
+    GameEvent(int changedPiles, List<Card> flippedCards, boolean scoreChanged, boolean won, int winBonus,
+            boolean undoApplied) {
+        this.changedPiles = changedPiles;
+        this.flippedCards = Collections.unmodifiableList(flippedCards);
+        this.scoreChanged = scoreChanged;
+        this.won = won;
+        this.winBonus = winBonus;
+        this.undoApplied = undoApplied;
+    }
+
+    public static int foundation(int index) {
+        return FIRST_FOUNDATION + index;
+    }
+
+    public static int tableau(int index) {
+        return FIRST_TABLEAU + index;
+    }
+
+    public int getChangedPiles() {
+        return changedPiles;
+    }
+
+    public boolean isPileChanged(int pileId) {
+        return (changedPiles & (1 << pileId)) != 0;
+    }
+
+    public boolean isFoundationChanged() {
+        return (changedPiles & (0xF << FIRST_FOUNDATION)) != 0;
+    }
+
+    // Tableau cards turned face up by this action, in the order they were revealed.
+    public List<Card> getFlippedCards() {
+        return flippedCards;
+    }
+
+    // Score or move count changed.
+    public boolean isScoreChanged() {
+        return scoreChanged;
+    }
+
+    // True only for the action that completed the foundations.
+    public boolean isWon() {
+        return won;
+    }
+
+    // Time and move bonus credited by the winning action.
+    public int getWinBonus() {
+        return winBonus;
+    }
+
+    public boolean isUndoApplied() {
+        return undoApplied;
+    }
+}
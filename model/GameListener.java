@@ -0,0 +1,7 @@
+package solitaire.model;
+
+public interface GameListener {
+
+    // Called once per action, after the game has settled.
+    void gameChanged(GameEvent event);
+}
@@ -2,7 +2,6 @@ package solitaire.model;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
 
 public class GameState {
 
@@ -15,6 +14,7 @@ public class GameState {
     // Add these fields to save score and moves
     private int savedScore;
     private int savedMoves;
+    private int savedMoveLogSize;
 
     @SuppressWarnings("unchecked")
     public GameState(SolitaireGame game, String description) {
@@ -23,24 +23,22 @@ public class GameState {
         // Save score and moves BEFORE any changes
         this.savedScore = game.getScore();
         this.savedMoves = game.getMoves();
+        this.savedMoveLogSize = game.getMoveLogSize();
 
         stockCards = new ArrayList<>();
-        Stack<Card> stock = game.getStockPile().getCards();
-        for (Card card : stock) {
+        for (Card card : game.getStockPile().view()) {
             stockCards.add(copyCard(card));
         }
 
         wasteCards = new ArrayList<>();
-        Stack<Card> waste = game.getWastePile().getCards();
-        for (Card card : waste) {
+        for (Card card : game.getWastePile().view()) {
             wasteCards.add(copyCard(card));
         }
 
         foundationCards = new List[4];
         for (int i = 0; i < 4; i++) {
             foundationCards[i] = new ArrayList<>();
-            Stack<Card> foundation = game.getFoundationPile(i).getCards();
-            for (Card card : foundation) {
+            for (Card card : game.getFoundationPile(i).view()) {
                 foundationCards[i].add(copyCard(card));
             }
         }
@@ -48,8 +46,7 @@ public class GameState {
         tableauCards = new List[7];
         for (int i = 0; i < 7; i++) {
             tableauCards[i] = new ArrayList<>();
-            Stack<Card> tableau = game.getTableauPileObject(i).getCards();
-            for (Card card : tableau) {
+            for (Card card : game.getTableauPileObject(i).view()) {
                 tableauCards[i].add(copyCard(card));
             }
         }
@@ -61,41 +58,47 @@ public class GameState {
         return copy;
     }
 
+    // A fresh card per restore, so the saved copies are never handed to a pile.
+    private static void restoreCard(Pile pile, Card saved) {
+        pile.addCard(new Card(saved.getSuit(), saved.getRank()), saved.isFaceUp());
+    }
+
     public void restoreGameState(SolitaireGame game) {
         // Clear all piles
-        game.getStockPile().getCards().clear();
-        game.getWastePile().getCards().clear();
+        game.getStockPile().clear();
+        game.getWastePile().clear();
         for (int i = 0; i < 4; i++) {
-            game.getFoundationPile(i).getCards().clear();
+            game.getFoundationPile(i).clear();
         }
         for (int i = 0; i < 7; i++) {
-            game.getTableauPileObject(i).getCards().clear();
+            game.getTableauPileObject(i).clear();
         }
 
         // Restore all card positions
         for (Card card : stockCards) {
-            game.getStockPile().addCard(copyCard(card));
+            restoreCard(game.getStockPile(), card);
         }
 
         for (Card card : wasteCards) {
-            game.getWastePile().addCard(copyCard(card));
+            restoreCard(game.getWastePile(), card);
         }
 
         for (int i = 0; i < 4; i++) {
             for (Card card : foundationCards[i]) {
-                game.getFoundationPile(i).addCard(copyCard(card));
+                restoreCard(game.getFoundationPile(i), card);
             }
         }
 
         for (int i = 0; i < 7; i++) {
             for (Card card : tableauCards[i]) {
-                game.getTableauPileObject(i).addCard(copyCard(card));
+                restoreCard(game.getTableauPileObject(i), card);
             }
         }
 
         // Restore score and moves - this is the key fix!
         game.setScore(savedScore);
         game.setMoves(savedMoves);
+        game.truncateMoveLog(savedMoveLogSize);
 
         System.out.println("Game state restored: " + moveDescription + " (Score: " + savedScore + ", Moves: " + savedMoves + ")");
     }
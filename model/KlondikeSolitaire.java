@@ -1,13 +1,21 @@
 package solitaire.model;
 
 import java.awt.Dimension;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
 
+import solitaire.gui.CardImageCache;
 import solitaire.gui.SolitaireGUI;
 
 public class KlondikeSolitaire {
 
+    private static final int RULE_WARMUP_ROUNDS = 200;
+
     public static void main(String[] args) {
+        long launchNanos = System.nanoTime();
+
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -15,30 +23,98 @@ public class KlondikeSolitaire {
                 System.out.println("Default look and feel applied.");
             }
 
-         
+
             SplashScreen splash = new SplashScreen();
             splash.setVisible(true);
 
-        
-            Timer timer = new Timer(3000, e -> {
-                splash.dispose(); 
-
-                JFrame frame = new JFrame("Klondike Solitaire");
-                frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-                frame.setResizable(true);
-                SolitaireGUI gui = new SolitaireGUI();
-                frame.add(gui);
-                frame.pack();
-                frame.setLocationRelativeTo(null); 
-                frame.setMinimumSize(new Dimension(1024, 768));
-                frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
-                frame.setVisible(true);
-
-                System.out.println("Klondike Solitaire started successfully!");
-            });
-
-            timer.setRepeats(false);
-            timer.start();
+            // Everything the first frame needs is prepared while the splash animates.
+            SwingWorker<SolitaireGame, String> warmUp = new SwingWorker<SolitaireGame, String>() {
+                @Override
+                protected SolitaireGame doInBackground() {
+                    publish("Loading cards...");
+                    CardImageCache.preloadAll();
+
+                    publish("Dealing...");
+                    SolitaireGame game = new SolitaireGame();
+
+                    publish("Getting ready...");
+                    warmUpRules(game);
+                    return game;
+                }
+
+                @Override
+                protected void process(List<String> statuses) {
+                    splash.setStatus(statuses.get(statuses.size() - 1));
+                }
+
+                @Override
+                protected void done() {
+                    SolitaireGame game;
+                    try {
+                        game = get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        System.out.println("Warm-up failed, dealing on the EDT: " + e.getMessage());
+                        game = new SolitaireGame();
+                    }
+                    showMainFrame(splash, game, launchNanos);
+                }
+            };
+            warmUp.execute();
+        });
+    }
+
+    private static void showMainFrame(SplashScreen splash, SolitaireGame game, long launchNanos) {
+        splash.dispose();
+
+        JFrame frame = new JFrame("Klondike Solitaire");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setResizable(true);
+        SolitaireGUI gui = new SolitaireGUI(game);
+        gui.setFirstFrameListener(() -> {
+            long sinceLaunch = (System.nanoTime() - launchNanos) / 1_000_000L;
+            long sinceJvmStart = ManagementFactory.getRuntimeMXBean().getUptime();
+            System.out.println("Time to first interactive frame: " + sinceLaunch + " ms ("
+                    + sinceJvmStart + " ms since JVM start)");
         });
+        frame.add(gui);
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+        frame.setMinimumSize(new Dimension(1024, 768));
+        frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
+        frame.setVisible(true);
+
+        System.out.println("Klondike Solitaire started successfully!");
+    }
+
+    // Exercises the move rules on the fresh deal so the first clicks run compiled code.
+    private static void warmUpRules(SolitaireGame game) {
+        int legal = 0;
+        for (int round = 0; round < RULE_WARMUP_ROUNDS; round++) {
+            for (int col = 0; col < 7; col++) {
+                List<Card> pile = game.getTableauPile(col);
+                for (int i = 0; i < pile.size(); i++) {
+                    if (game.canMoveSequenceFromTableau(col, i)) {
+                        legal++;
+                    }
+                }
+
+                Card top = game.getTableauPileObject(col).topCard();
+                if (top == null) {
+                    continue;
+                }
+                for (int other = 0; other < 7; other++) {
+                    Card target = game.getTableauPileObject(other).topCard();
+                    if (target != null && top.canStackOn(target)) {
+                        legal++;
+                    }
+                }
+                for (int f = 0; f < 4; f++) {
+                    if (top.canMoveToFoundation(game.getTopFoundationCard(f))) {
+                        legal++;
+                    }
+                }
+            }
+        }
+        System.out.println("Rules warmed up (" + legal + " legal checks)");
     }
 }
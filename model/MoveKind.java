@@ -0,0 +1,37 @@
+package solitaire.model;
+
+/**
+ * Everything that can change the score. Each kind maps to a fixed number of
+ * points in a ScoringMode, so a game's score can be rebuilt from the list of
+ * kinds it recorded.
+ */
+public enum MoveKind {
+    DRAW_STOCK("Draw from Stock", true),
+    RECYCLE_WASTE("Recycle Waste to Stock", true),
+    WASTE_TO_TABLEAU("Waste to Tableau", true),
+    WASTE_TO_FOUNDATION("Waste to Foundation", true),
+    TABLEAU_TO_TABLEAU("Tableau to Tableau", true),
+    TABLEAU_TO_FOUNDATION("Tableau to Foundation", true),
+    FOUNDATION_TO_TABLEAU("Foundation to Tableau", true),
+    TURN_OVER_TABLEAU_CARD("Turn over Tableau Card", true),
+    UNDO("Undo", false),
+    // Logged by timed games for every 10 seconds of play.
+    TIME_PENALTY("Time Penalty", false);
+
+    private final String description;
+    private final boolean countsAsMove;
+
+    MoveKind(String description, boolean countsAsMove) {
+        this.description = description;
+        this.countsAsMove = countsAsMove;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    // False for bookkeeping entries that do not add to the move counter.
+    public boolean countsAsMove() {
+        return countsAsMove;
+    }
+}
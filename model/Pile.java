@@ -1,43 +1,105 @@
 package solitaire.model;
 
-import java.util.Stack;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
 
 public abstract class Pile {
-    protected Stack<Card> cards;
+    // No pile can ever hold more than the whole deck.
+    public static final int CAPACITY = 52;
 
-    public Pile() {
-        cards = new Stack<>();
-    }
+    // Plain array plus a count: no locking and nothing handed out that could
+    // change the pile behind its back.
+    private final Card[] cards = new Card[CAPACITY];
+    private int size = 0;
+    private final List<Card> view = new AbstractList<Card>() {
+        @Override
+        public Card get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+            }
+            return cards[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
 
     public void addCard(Card card) {
-        cards.push(card);
+        cards[size++] = card;
+        cardsAdded(size - 1);
+    }
+
+    // Turns the card face up or down, then adds it.
+    public void addCard(Card card, boolean faceUp) {
+        card.setFaceUp(faceUp);
+        addCard(card);
     }
 
     public Card topCard() {
-        return cards.isEmpty() ? null : cards.peek();
+        return size == 0 ? null : cards[size - 1];
+    }
+
+    public Card cardAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        }
+        return cards[index];
     }
 
     public Card removeCard() {
-        return cards.isEmpty() ? null : cards.pop();
+        if (size == 0) {
+            return null;
+        }
+        Card card = cards[--size];
+        cards[size] = null;
+        return card;
+    }
+
+    // Moves the top n cards onto target in one copy, keeping their order.
+    public boolean transferTopN(Pile target, int n) {
+        if (n <= 0 || n > size || target.size + n > CAPACITY) {
+            return false;
+        }
+        int from = size - n;
+        int targetFrom = target.size;
+        System.arraycopy(cards, from, target.cards, targetFrom, n);
+        Arrays.fill(cards, from, size, null);
+        size = from;
+        target.size += n;
+        target.cardsAdded(targetFrom);
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(cards, 0, size, null);
+        size = 0;
     }
 
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return size == 0;
     }
 
     public int size() {
-        return cards.size();
+        return size;
     }
 
-    public Stack<Card> getCards() {
-        return cards;
+    // Snapshot copy, safe to keep after the pile changes.
+    public List<Card> asList() {
+        return new ArrayList<>(view);
     }
 
-    public List<Card> asList() {
-        return new ArrayList<>(cards);
+    // Read-only live view, for callers that only look at the cards right away.
+    public List<Card> view() {
+        return view;
+    }
+
+    // Called after cards were placed at fromIndex and above.
+    protected void cardsAdded(int fromIndex) {
     }
 
-    public abstract boolean canAdd(Card card);  
+    public abstract boolean canAdd(Card card);
 }
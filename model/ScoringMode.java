@@ -0,0 +1,88 @@
+package solitaire.model;
+
+import java.util.List;
+
+/**
+ * Points per MoveKind for each supported scoring rule set.
+ *
+ * Standard keeps the game's original values. Vegas starts at -52 and pays 5
+ * per card on a foundation; the cumulative variant carries the running total
+ * from one game into the next. Timed uses the standard table and also charges
+ * 2 points for every 10 seconds of play.
+ */
+public enum ScoringMode {
+    STANDARD(0, true, true),
+    VEGAS(-52, false, false),
+    VEGAS_CUMULATIVE(-52, false, false),
+    TIMED(0, true, true);
+
+    public static final int TIME_PENALTY_SECONDS = 10;
+
+    private final int startingScore;
+    private final boolean floorAtZero;
+    private final boolean winBonus;
+    private final int[] points = new int[MoveKind.values().length];
+
+    static {
+        STANDARD.points(MoveKind.WASTE_TO_FOUNDATION, 10)
+                .points(MoveKind.TABLEAU_TO_FOUNDATION, 10)
+                .points(MoveKind.FOUNDATION_TO_TABLEAU, -15)
+                .points(MoveKind.TURN_OVER_TABLEAU_CARD, 5)
+                .points(MoveKind.RECYCLE_WASTE, -100)
+                .points(MoveKind.UNDO, -50);
+
+        VEGAS.points(MoveKind.WASTE_TO_FOUNDATION, 5)
+                .points(MoveKind.TABLEAU_TO_FOUNDATION, 5)
+                .points(MoveKind.FOUNDATION_TO_TABLEAU, -5);
+        System.arraycopy(VEGAS.points, 0, VEGAS_CUMULATIVE.points, 0, VEGAS.points.length);
+
+        System.arraycopy(STANDARD.points, 0, TIMED.points, 0, STANDARD.points.length);
+        TIMED.points(MoveKind.TIME_PENALTY, -2);
+    }
+
+    ScoringMode(int startingScore, boolean floorAtZero, boolean winBonus) {
+        this.startingScore = startingScore;
+        this.floorAtZero = floorAtZero;
+        this.winBonus = winBonus;
+    }
+
+    private ScoringMode points(MoveKind kind, int value) {
+        points[kind.ordinal()] = value;
+        return this;
+    }
+
+    public int pointsFor(MoveKind kind) {
+        return points[kind.ordinal()];
+    }
+
+    public int getStartingScore() {
+        return startingScore;
+    }
+
+    public boolean isTimed() {
+        return this == TIMED;
+    }
+
+    public boolean isCumulative() {
+        return this == VEGAS_CUMULATIVE;
+    }
+
+    public boolean awardsWinBonus() {
+        return winBonus;
+    }
+
+    // The single place a move turns into points.
+    public int apply(int score, MoveKind kind) {
+        score += points[kind.ordinal()];
+        return floorAtZero && score < 0 ? 0 : score;
+    }
+
+    // Rebuilds a score from a move log, starting from the given opening score.
+    public int replay(int openingScore, List<MoveKind> log) {
+        int score = openingScore;
+        for (MoveKind kind : log) {
+            score = apply(score, kind);
+        }
+        return score;
+    }
+}
@@ -4,12 +4,15 @@ import java.util.Stack;
 import solitaire.model.GameState;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.Stack;
 
 public class SolitaireGame {
 
     private final Deck deck;
+    private final DealId dealId;
     private final StockPile stock;
     private final WastePile waste;
     private final FoundationPile[] foundations;
@@ -18,29 +21,99 @@ public class SolitaireGame {
 
     private int score = 0;
     private int moves = 0;
-    private long startTime;
-    private long elapsedTime = 0;
-    private boolean gameStarted = false;
+    private int foundationCardCount = 0;
+    private final ScoringMode scoringMode;
+    private final int openingScore;
+    private final List<MoveKind> moveLog = new ArrayList<>();
+    private int timePenaltiesCharged = 0;
+    private int winBonus = 0;
+    private boolean winBonusApplied = false;
+    private final GameClock clock = new GameClock();
 
     private Stack<GameState> undoStack;
     private static final int MAX_UNDO_STATES = 50;
 
+    // Changes collected until the outermost endUpdate() delivers them as one event.
+    private final List<GameListener> listeners = new ArrayList<>();
+    private int updateDepth = 0;
+    private int pendingPiles = 0;
+    private List<Card> pendingFlips = new ArrayList<>();
+    private boolean scoreChanged = false;
+    private boolean pendingWon = false;
+    private boolean pendingUndo = false;
+    private boolean pendingMove = false;
+
+    // Safe auto-play: after each move, cards no tableau build can still need
+    // go to the foundations in one batch.
+    private boolean autoPlayEnabled = false;
+    private final int[] foundationBySuit = new int[4];
+    private final int[][] oppositeFoundations = new int[4][2];
+    private final int[] sameColourFoundation = new int[4];
+
     public SolitaireGame() {
-        deck = new Deck();
+        this(ScoringMode.STANDARD);
+    }
+
+    public SolitaireGame(ScoringMode scoringMode) {
+        this(new Deck(), scoringMode, 0);
+    }
+
+    // The next deal of a session: Vegas cumulative starts from carriedScore,
+    // usually the previous game's getCarryOverScore(). Other modes ignore it.
+    public SolitaireGame(ScoringMode scoringMode, int carriedScore) {
+        this(new Deck(), scoringMode, carriedScore);
+    }
+
+    // Replays a known deal, e.g. one shared by another player.
+    public SolitaireGame(DealId dealId) {
+        this(dealId, ScoringMode.STANDARD);
+    }
+
+    public SolitaireGame(DealId dealId, ScoringMode scoringMode) {
+        this(new Deck(dealId), scoringMode, 0);
+    }
+
+    // A deal known to be winnable, drawn from a pre-solved library.
+    public SolitaireGame(DealLibrary library, Difficulty difficulty) {
+        this(library, difficulty, ScoringMode.STANDARD);
+    }
+
+    public SolitaireGame(DealLibrary library, Difficulty difficulty, ScoringMode scoringMode) {
+        this(library.draw(difficulty, ThreadLocalRandom.current()), scoringMode);
+    }
+
+    private SolitaireGame(Deck deck, ScoringMode scoringMode, int carriedScore) {
+        this.scoringMode = scoringMode;
+        openingScore = scoringMode.isCumulative()
+                ? carriedScore + scoringMode.getStartingScore() : scoringMode.getStartingScore();
+        this.deck = deck;
+        dealId = deck.getDealId();
         stock = new StockPile();
         waste = new WastePile();
         foundations = new FoundationPile[4];
         tableaus = new TableauPile[7];
         undoStack = new Stack<>();
         
-        startTime = System.currentTimeMillis();
-        score = 0;
+        score = openingScore;
         moves = 0;
 
         foundations[0] = new FoundationPile(Card.Suit.HEARTS);
         foundations[1] = new FoundationPile(Card.Suit.SPADES);
         foundations[2] = new FoundationPile(Card.Suit.DIAMONDS);
         foundations[3] = new FoundationPile(Card.Suit.CLUBS);
+        for (int i = 0; i < 4; i++) {
+            foundationBySuit[foundations[i].getSuit().ordinal()] = i;
+        }
+        for (int i = 0; i < 4; i++) {
+            int n = 0;
+            for (int j = 0; j < 4; j++) {
+                if (isRedSuit(foundations[j].getSuit()) != isRedSuit(foundations[i].getSuit())) {
+                    oppositeFoundations[foundations[i].getSuit().ordinal()][n++] = j;
+                } else if (j != i) {
+                    sameColourFoundation[foundations[i].getSuit().ordinal()] = j;
+                }
+            }
+        }
 
         for (int i = 0; i < 7; i++) {
             tableaus[i] = new TableauPile();
@@ -49,6 +122,7 @@ public class SolitaireGame {
         setupGame();
 
         System.out.println("Game initialized with " + getTotalCardsCount() + " cards");
+        System.out.println("Deal id: " + dealId);
         printGameState();
     }
 
@@ -58,13 +132,7 @@ public class SolitaireGame {
             for (int row = 0; row <= col; row++) {
                 Card card = deck.drawCard();
                 if (card != null) {
-                   
-                    if (row == col) {
-                        card.setFaceUp(true);
-                    } else {
-                        card.setFaceUp(false);
-                    }
-                    tableaus[col].addCard(card);
+                    tableaus[col].addCard(card, row == col);
                     totalCards++;
                 }
             }
@@ -73,151 +141,124 @@ public class SolitaireGame {
         while (!deck.isEmpty()) {
             Card card = deck.drawCard();
             if (card != null) {
-                card.setFaceUp(false); 
-                stock.addCard(card);
+                stock.addCard(card, false);
                 totalCards++;
             }
         }
     }
 
-    
-    private void updateScore(String moveType) {
-        switch (moveType) {
-            case "WASTE_TO_FOUNDATION":
-                score += 10;
-                break;
-            case "TABLEAU_TO_FOUNDATION":
-                score += 10;
-                break;
-            case "FOUNDATION_TO_TABLEAU":
-                score -= 15; 
-                break;
-            case "TURN_OVER_TABLEAU_CARD":
-                score += 5;
-                break;
-            case "RECYCLE_WASTE":
-                score -= 100; 
-                break;
-            case "UNDO":
-                score -= 50;
-                break;
-            default:
-               
-                break;
+    // Scores one move through the mode's table and appends it to the move log.
+    private void applyMove(MoveKind kind) {
+        if (scoringMode.isTimed() && kind != MoveKind.TIME_PENALTY) {
+            chargeElapsedTime();
         }
-        
-        if (score < 0) {
-            score = 0;
-        }
-        
-        moves++;
-        
-        updateElapsedTime();
-    }
-
-    // NEW METHOD: Update score without incrementing moves
-    private void updateScoreOnly(String moveType) {
-        switch (moveType) {
-            case "WASTE_TO_FOUNDATION":
-                score += 10;
-                break;
-            case "TABLEAU_TO_FOUNDATION":
-                score += 10;
-                break;
-            case "FOUNDATION_TO_TABLEAU":
-                score -= 15; 
-                break;
-            case "TURN_OVER_TABLEAU_CARD":
-                score += 5;
-                break;
-            case "RECYCLE_WASTE":
-                score -= 100; 
-                break;
-            case "UNDO":
-                score -= 50;
-                break;
-            default:
-                break;
-        }
-        
-        if (score < 0) {
-            score = 0;
+        moveLog.add(kind);
+        score = scoringMode.apply(score, kind);
+        if (kind.countsAsMove()) {
+            moves++;
+            pendingMove = true;
         }
+        scoreChanged = true;
     }
 
-    
-    private void calculateWinBonus() {
-        if (isGameWon()) {
-  
-            long gameTimeInSeconds = elapsedTime / 1000;
-            int timeBonus = Math.max(0, 10000 - (int)(gameTimeInSeconds * 2));
-            
-            int moveBonus = Math.max(0, 1000 - (moves * 5));
-            
-            score += timeBonus + moveBonus;
-            
-            System.out.println("Game completed!");
-            System.out.println("Time bonus: " + timeBonus);
-            System.out.println("Move bonus: " + moveBonus);
-            System.out.println("Final score: " + score);
+    // Timed games pay for every full period played so far; charged lazily on the next move.
+    private void chargeElapsedTime() {
+        long due = clock.getElapsedSeconds() / ScoringMode.TIME_PENALTY_SECONDS;
+        while (timePenaltiesCharged < due) {
+            timePenaltiesCharged++;
+            applyMove(MoveKind.TIME_PENALTY);
         }
     }
 
-   
-    private void updateElapsedTime() {
-        if (gameStarted) {
-            elapsedTime = System.currentTimeMillis() - startTime;
-        }
+    // Called once, by the move that completes the foundations.
+    private void applyWinBonus() {
+        clock.pause();
+        long gameTimeInSeconds = clock.getElapsedSeconds();
+        int timeBonus = Math.max(0, 10000 - (int)(gameTimeInSeconds * 2));
+
+        int moveBonus = Math.max(0, 1000 - (moves * 5));
+
+        winBonus = scoringMode.awardsWinBonus() ? timeBonus + moveBonus : 0;
+        winBonusApplied = true;
+        score += winBonus;
+        scoreChanged = true;
+        pendingWon = true;
+
+        System.out.println("Game completed!");
+        System.out.println("Time bonus: " + timeBonus);
+        System.out.println("Move bonus: " + moveBonus);
+        System.out.println("Final score: " + score);
     }
 
-   
     public void startGame() {
-        if (!gameStarted) {
-            startTime = System.currentTimeMillis();
-            gameStarted = true;
+        clock.start();
+    }
+
+    public DealId getDealId() {
+        return dealId;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    // For the UI going out of view; a won game's clock stays stopped.
+    public void pauseClock() {
+        clock.pause();
+    }
+
+    public void resumeClock() {
+        if (!isGameWon()) {
+            clock.resume();
         }
     }
 
-  
     public String getFormattedTime() {
-        updateElapsedTime();
-        long seconds = elapsedTime / 1000;
-        long minutes = seconds / 60;
-        long hours = minutes / 60;
-        
-        if (hours > 0) {
-            return String.format("%d:%02d:%02d", hours, minutes % 60, seconds % 60);
-        } else {
-            return String.format("%d:%02d", minutes, seconds % 60);
-        }
+        return clock.getFormatted();
     }
 
     public int getScore() {
         return score;
     }
+
+    // What the next deal of this session starts from; 0 unless Vegas cumulative.
+    public int getCarryOverScore() {
+        return scoringMode.isCumulative() ? score : 0;
+    }
     
     public int getMoves() {
         return moves;
     }
     
     public long getElapsedTime() {
-        updateElapsedTime();
-        return elapsedTime;
+        return clock.getElapsedMillis();
     }
 
     public boolean isGameStarted() {
-        return gameStarted;
+        return clock.isStarted();
     }
 
     public void setScore(int score) {
-        this.score = score;
+        beginUpdate();
+        try {
+            this.score = score;
+            scoreChanged = true;
+        } finally {
+            endUpdate();
+        }
     }
 
     public void setMoves(int moves) {
-        this.moves = moves;
+        beginUpdate();
+        try {
+            this.moves = moves;
+            scoreChanged = true;
+        } finally {
+            endUpdate();
+        }
     }
 
-    private void saveGameState(String description) {
+    private void saveGameState(MoveKind kind) {
         
         if (undoStack.size() >= MAX_UNDO_STATES) {
             
@@ -231,9 +272,81 @@ public class SolitaireGame {
             }
         }
 
-        GameState state = new GameState(this, description);
+        GameState state = new GameState(this, kind.getDescription());
         undoStack.push(state);
-        System.out.println("Saved game state: " + description + " (Stack size: " + undoStack.size() + ")");
+    }
+
+    public void addGameListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeGameListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Groups several calls into one action; listeners hear about it once, at the
+    // matching endUpdate(). Calls may nest.
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    public void endUpdate() {
+        if (--updateDepth > 0) {
+            return;
+        }
+        updateDepth = 0;
+
+        // Runs inside this update, so the batch reaches listeners in the same event.
+        if (autoPlayEnabled && pendingMove && !pendingUndo && !isGameWon()) {
+            updateDepth++;
+            try {
+                autoPlaySafeCards();
+            } finally {
+                updateDepth = 0;
+            }
+        }
+        pendingMove = false;
+
+        if (pendingPiles == 0 && !scoreChanged && !pendingUndo && !pendingWon) {
+            return;
+        }
+        GameEvent event = new GameEvent(pendingPiles, pendingFlips, scoreChanged,
+                pendingWon, pendingWon ? winBonus : 0, pendingUndo);
+        pendingPiles = 0;
+        pendingFlips = new ArrayList<>();
+        scoreChanged = false;
+        pendingWon = false;
+        pendingUndo = false;
+
+        for (GameListener listener : new ArrayList<>(listeners)) {
+            listener.gameChanged(event);
+        }
+    }
+
+    private void pileChanged(int pileId) {
+        pendingPiles |= 1 << pileId;
+    }
+
+    private void foundationChanged(int index, int delta) {
+        pileChanged(GameEvent.foundation(index));
+        foundationCardCount += delta;
+        if (foundationCardCount == 52 && !winBonusApplied) {
+            applyWinBonus();
+        }
+    }
+
+    // Only needed after the piles were rebuilt wholesale, e.g. by an undo.
+    private void recountFoundationCards() {
+        foundationCardCount = 0;
+        for (FoundationPile foundation : foundations) {
+            foundationCardCount += foundation.size();
+        }
+        if (foundationCardCount < 52 && winBonusApplied) {
+            // The restored score predates the bonus, and play goes on.
+            winBonusApplied = false;
+            winBonus = 0;
+            clock.resume();
+        }
     }
 
     public boolean canUndo() {
@@ -241,58 +354,73 @@ public class SolitaireGame {
     }
 
     public boolean undo() {
-        if (!canUndo()) {
-            System.out.println("Cannot undo - no previous states available");
-            return false;
-        }
+        beginUpdate();
+        try {
+            if (!canUndo()) {
+                System.out.println("Cannot undo - no previous states available");
+                return false;
+            }
 
-        // Remove current state
-        GameState currentState = undoStack.pop();
-        System.out.println("Undoing: " + currentState.getMoveDescription());
+            // Remove current state
+            GameState currentState = undoStack.pop();
+            System.out.println("Undoing: " + currentState.getMoveDescription());
 
-        // Restore to previous state (this will restore score and moves automatically)
-        GameState previousState = undoStack.peek();
-        previousState.restoreGameState(this);
+            // Restore to previous state (this will restore score and moves automatically)
+            GameState previousState = undoStack.peek();
+            previousState.restoreGameState(this);
+            recountFoundationCards();
+            pendingPiles = GameEvent.ALL_PILES;
+            pendingUndo = true;
 
-        // Apply undo penalty ONLY to score, not moves
-        updateScoreOnly("UNDO");
+            // Apply undo penalty ONLY to score, not moves
+            applyMove(MoveKind.UNDO);
 
-        System.out.println("Restored to: " + previousState.getMoveDescription());
-        return true;
+            System.out.println("Restored to: " + previousState.getMoveDescription());
+            return true;
+        } finally {
+            endUpdate();
+        }
     }
 
     public boolean drawFromStock() {
-        startGame(); 
+        beginUpdate();
+        try {
+            startGame(); 
         
-        if (stock.isEmpty()) {
+            if (stock.isEmpty()) {
            
-            if (!waste.isEmpty()) {
-                saveGameState("Recycle Waste to Stock");
-                updateScore("RECYCLE_WASTE");
+                if (!waste.isEmpty()) {
+                    saveGameState(MoveKind.RECYCLE_WASTE);
+                    applyMove(MoveKind.RECYCLE_WASTE);
+                    pileChanged(GameEvent.STOCK);
+                    pileChanged(GameEvent.WASTE);
                 
-                while (!waste.isEmpty()) {
-                    Card card = waste.removeCard();
-                    if (card != null) {
-                        card.setFaceUp(false);
-                        stock.addCard(card);
+                    while (!waste.isEmpty()) {
+                        Card card = waste.removeCard();
+                        if (card != null) {
+                            stock.addCard(card, false);
+                        }
                     }
+                    return true;
                 }
-                return true;
-            }
-            return false;
-        } else {
+                return false;
+            } else {
           
-            saveGameState("Draw from Stock");
-            Card card = stock.removeCard();
-            if (card != null) {
-                card.setFaceUp(true);
-                waste.addCard(card);
-                moves++; 
-                return true;
+                saveGameState(MoveKind.DRAW_STOCK);
+                Card card = stock.removeCard();
+                if (card != null) {
+                    waste.addCard(card, true);
+                    applyMove(MoveKind.DRAW_STOCK);
+                    pileChanged(GameEvent.STOCK);
+                    pileChanged(GameEvent.WASTE);
+                    return true;
+                }
             }
-        }
 
-        return false;
+            return false;
+        } finally {
+            endUpdate();
+        }
     }
 
     public boolean canMoveToFoundation(Card card, int foundationIndex) {
@@ -310,34 +438,44 @@ public class SolitaireGame {
     }
 
     public boolean moveToFoundation(Card card, int foundationIndex) {
-        if (foundationIndex < 0 || foundationIndex >= 4 || card == null) {
-            System.out.println("Invalid foundation index or null card");
-            return false;
-        }
+        beginUpdate();
+        try {
+            if (foundationIndex < 0 || foundationIndex >= 4 || card == null) {
+                System.out.println("Invalid foundation index or null card");
+                return false;
+            }
 
-        if (foundations[foundationIndex].canAdd(card)) {
-            foundations[foundationIndex].addCard(card);
-            System.out.println("Successfully moved " + card.getRank() + " of " + card.getSuit() + " to foundation " + foundationIndex);
-            return true;
-        } else {
-            System.out.println("Cannot add " + card.getRank() + " of " + card.getSuit() + " to foundation " + foundationIndex);
-            return false;
+            if (foundations[foundationIndex].canAdd(card)) {
+                foundations[foundationIndex].addCard(card);
+                foundationChanged(foundationIndex, 1);
+                return true;
+            } else {
+                System.out.println("Cannot add " + card.getRank() + " of " + card.getSuit() + " to foundation " + foundationIndex);
+                return false;
+            }
+        } finally {
+            endUpdate();
         }
     }
 
     public boolean moveToTableau(Card card, int tableauIndex) {
-        if (tableauIndex < 0 || tableauIndex >= 7 || card == null) {
-            System.out.println("Invalid tableau index or null card");
-            return false;
-        }
+        beginUpdate();
+        try {
+            if (tableauIndex < 0 || tableauIndex >= 7 || card == null) {
+                System.out.println("Invalid tableau index or null card");
+                return false;
+            }
 
-        if (tableaus[tableauIndex].canAdd(card)) {
-            tableaus[tableauIndex].addCard(card);
-            System.out.println("Successfully moved " + card.getRank() + " of " + card.getSuit() + " to tableau " + tableauIndex);
-            return true;
-        } else {
-            System.out.println("Cannot add " + card.getRank() + " of " + card.getSuit() + " to tableau " + tableauIndex);
-            return false;
+            if (tableaus[tableauIndex].canAdd(card)) {
+                tableaus[tableauIndex].addCard(card);
+                pileChanged(GameEvent.tableau(tableauIndex));
+                return true;
+            } else {
+                System.out.println("Cannot add " + card.getRank() + " of " + card.getSuit() + " to tableau " + tableauIndex);
+                return false;
+            }
+        } finally {
+            endUpdate();
         }
     }
 
@@ -347,181 +485,446 @@ public class SolitaireGame {
             return false;
         }
 
-        List<Card> pile = getTableauPileAsList(tableauIndex);
-        if (startIndex < 0 || startIndex >= pile.size()) {
-            return false;
+        return tableaus[tableauIndex].canMoveFrom(startIndex);
+    }
+
+    // Move sequence of cards from one tableau to another
+    public boolean moveSequenceFromTableau(int sourceTableau, int startIndex, int targetTableau) {
+        beginUpdate();
+        try {
+            if (sourceTableau < 0 || sourceTableau >= 7 || targetTableau < 0 || targetTableau >= 7) {
+                return false;
+            }
+
+            if (sourceTableau == targetTableau) {
+                return false;
+            }
+
+            TableauPile sourcePile = tableaus[sourceTableau];
+            if (startIndex < 0 || startIndex >= sourcePile.size()) {
+                return false;
+            }
+
+            if (!canMoveSequenceFromTableau(sourceTableau, startIndex)) {
+                return false;
+            }
+
+            Card bottomCard = sourcePile.cardAt(startIndex);
+            if (!canMoveToTableau(bottomCard, targetTableau)) {
+                return false;
+            }
+
+            return transferTableauRun(sourceTableau, startIndex, targetTableau);
+        } finally {
+            endUpdate();
         }
+    }
 
-        Card startCard = pile.get(startIndex);
-        if (!startCard.isFaceUp()) {
+    private static boolean isRedSuit(Card.Suit suit) {
+        return suit == Card.Suit.HEARTS || suit == Card.Suit.DIAMONDS;
+    }
+
+    private int foundationIndexFor(Card.Suit suit) {
+        return foundationBySuit[suit.ordinal()];
+    }
+
+    private boolean fitsOnFoundation(Card card) {
+        Card top = foundations[foundationIndexFor(card.getSuit())].topCard();
+        return card.canMoveToFoundation(top);
+    }
+
+    public boolean isAutoPlayEnabled() {
+        return autoPlayEnabled;
+    }
+
+    public void setAutoPlayEnabled(boolean enabled) {
+        autoPlayEnabled = enabled;
+    }
+
+    // A card of rank r is safe to play when no tableau build can still need
+    // it: both opposite-colour foundations hold r - 1, or they hold r - 2 and
+    // the other same-colour foundation holds r - 3, so the cards of rank r - 2
+    // that sit on an opposite r - 1 can follow it up. Constant time.
+    public boolean isSafeFoundationMove(Card card) {
+        if (card == null || !card.isFaceUp() || !fitsOnFoundation(card)) {
             return false;
         }
+        int suit = card.getSuit().ordinal();
+        int[] opposite = oppositeFoundations[suit];
+        int lowestOpposite = Math.min(foundations[opposite[0]].size(), foundations[opposite[1]].size());
+        int rank = card.getRankValue();
+        return rank <= lowestOpposite + 1
+                || (rank <= lowestOpposite + 2 && foundations[sameColourFoundation[suit]].size() >= rank - 3);
+    }
 
-        if (startIndex == pile.size() - 1) {
-            return true;
+    // Plays every safe card from the tableau tops and the waste as one undo
+    // entry and one change event. Returns the number of cards played.
+    public int autoPlaySafeCards() {
+        beginUpdate();
+        try {
+            int played = 0;
+            boolean progress = true;
+            while (progress) {
+                progress = false;
+                for (int col = 0; col < 7; col++) {
+                    Card top = tableaus[col].topCard();
+                    if (isSafeFoundationMove(top)) {
+                        if (played++ == 0) {
+                            saveGameState(MoveKind.TABLEAU_TO_FOUNDATION);
+                        }
+                        applyMove(MoveKind.TABLEAU_TO_FOUNDATION);
+                        addToFoundation(removeFromTableau(col), foundationIndexFor(top.getSuit()));
+                        progress = true;
+                    }
+                }
+                Card wasteTop = waste.topCard();
+                if (isSafeFoundationMove(wasteTop)) {
+                    if (played++ == 0) {
+                        saveGameState(MoveKind.WASTE_TO_FOUNDATION);
+                    }
+                    applyMove(MoveKind.WASTE_TO_FOUNDATION);
+                    addToFoundation(removeFromWaste(), foundationIndexFor(wasteTop.getSuit()));
+                    progress = true;
+                }
+            }
+            return played;
+        } finally {
+            endUpdate();
         }
+    }
 
-        for (int i = startIndex; i < pile.size() - 1; i++) {
-            Card current = pile.get(i);
-            Card next = pile.get(i + 1);
+    // Moves one face-up card from a tableau pile or the waste to its foundation.
+    // Returns the card that was moved, or null when nothing can go up.
+    public Card autoCompleteStep() {
+        beginUpdate();
+        try {
+            startGame();
+
+            for (int col = 0; col < 7; col++) {
+                Card top = tableaus[col].topCard();
+                if (top != null && top.isFaceUp() && fitsOnFoundation(top)) {
+                    recordMove(MoveKind.TABLEAU_TO_FOUNDATION);
+                    Card card = removeFromTableau(col);
+                    addToFoundation(card, foundationIndexFor(card.getSuit()));
+                    return card;
+                }
+            }
 
-            if (!current.isFaceUp() || !next.isFaceUp()) {
-                return false;
+            Card wasteTop = waste.topCard();
+            if (wasteTop != null && fitsOnFoundation(wasteTop)) {
+                recordMove(MoveKind.WASTE_TO_FOUNDATION);
+                Card card = removeFromWaste();
+                addToFoundation(card, foundationIndexFor(card.getSuit()));
+                return card;
             }
 
-            boolean differentColor = isRed(current) != isRed(next);
-            boolean descending = current.getRank().ordinal() == next.getRank().ordinal() + 1;
+            return null;
+        } finally {
+            endUpdate();
+        }
+    }
 
-            if (!differentColor || !descending) {
+    public int autoComplete() {
+        if (canFinish()) {
+            return finishGame().size();
+        }
+        int moved = 0;
+        while (!isGameWon() && autoCompleteStep() != null) {
+            moved++;
+        }
+        return moved;
+    }
+
+    // True once every tableau card is face up. From there the game always
+    // finishes with foundation moves alone: the lowest card left is either a
+    // column top or in the stock or waste, which one-card draws with unlimited
+    // redeals can always reach.
+    public boolean canFinish() {
+        if (isGameWon()) {
+            return false;
+        }
+        for (TableauPile tableau : tableaus) {
+            // Face-down cards can only sit at the bottom of a column.
+            if (!tableau.isEmpty() && !tableau.cardAt(0).isFaceUp()) {
                 return false;
             }
         }
-
         return true;
     }
 
-    // Move sequence of cards from one tableau to another
-    public boolean moveSequenceFromTableau(int sourceTableau, int startIndex, int targetTableau) {
-        if (sourceTableau < 0 || sourceTableau >= 7 || targetTableau < 0 || targetTableau >= 7) {
-            return false;
+    /**
+     * One card of a finishing sequence: the pile it left (a GameEvent pile id),
+     * its index there before the sequence started, and its foundation.
+     */
+    public static final class FinishingMove {
+        private final Card card;
+        private final int sourcePile;
+        private final int sourceIndex;
+        private final int foundationIndex;
+
+        FinishingMove(Card card, int sourcePile, int sourceIndex, int foundationIndex) {
+            this.card = card;
+            this.sourcePile = sourcePile;
+            this.sourceIndex = sourceIndex;
+            this.foundationIndex = foundationIndex;
         }
 
-        if (sourceTableau == targetTableau) {
-            return false;
+        public Card getCard() {
+            return card;
         }
 
-        List<Card> sourcePile = getTableauPileAsList(sourceTableau);
-        if (startIndex < 0 || startIndex >= sourcePile.size()) {
-            return false;
+        public int getSourcePile() {
+            return sourcePile;
         }
 
-        if (!canMoveSequenceFromTableau(sourceTableau, startIndex)) {
-            return false;
+        public int getSourceIndex() {
+            return sourceIndex;
         }
 
-        Card bottomCard = sourcePile.get(startIndex);
-        if (!canMoveToTableau(bottomCard, targetTableau)) {
-            return false;
+        public int getFoundationIndex() {
+            return foundationIndex;
         }
+    }
 
-        List<Card> cardsToMove = new ArrayList<>();
+    // Plays every remaining card to the foundations as one undo entry and one
+    // change event, and returns the sequence in the order it was played.
+    // Stock cards are played through the waste without charging draws.
+    public List<FinishingMove> finishGame() {
+        if (!canFinish()) {
+            return Collections.emptyList();
+        }
 
-        for (int i = sourcePile.size() - 1; i >= startIndex; i--) {
-            Card card = removeFromTableau(sourceTableau);
-            if (card != null) {
-                cardsToMove.add(0, card); 
-            }
+        // One pass records where every card not yet on a foundation lies.
+        Card[] cards = new Card[52];
+        int[] pileOf = new int[52];
+        int[] indexOf = new int[52];
+        locateCards(stock.view(), GameEvent.STOCK, cards, pileOf, indexOf);
+        locateCards(waste.view(), GameEvent.WASTE, cards, pileOf, indexOf);
+        for (int col = 0; col < 7; col++) {
+            locateCards(tableaus[col].view(), GameEvent.tableau(col), cards, pileOf, indexOf);
         }
 
-        for (Card card : cardsToMove) {
-            addToTableau(card, targetTableau);
+        // Rank by rank is always legal: anything above a card in its column is
+        // lower and has gone up in an earlier round.
+        List<FinishingMove> sequence = new ArrayList<>(52 - foundationCardCount);
+        for (int rank = 0; rank < 13; rank++) {
+            for (int f = 0; f < 4; f++) {
+                int code = foundations[f].getSuit().ordinal() * 13 + rank;
+                if (cards[code] != null) {
+                    sequence.add(new FinishingMove(cards[code], pileOf[code], indexOf[code], f));
+                }
+            }
         }
 
-        System.out.println("Moved sequence of " + cardsToMove.size() + " cards from tableau " + sourceTableau + " to tableau " + targetTableau);
-        return true;
+        beginUpdate();
+        try {
+            startGame();
+            saveGameState(MoveKind.TABLEAU_TO_FOUNDATION);
+            stock.clear();
+            waste.clear();
+            pileChanged(GameEvent.STOCK);
+            pileChanged(GameEvent.WASTE);
+            for (FinishingMove move : sequence) {
+                Card card = move.getCard();
+                if (move.getSourcePile() >= GameEvent.FIRST_TABLEAU) {
+                    applyMove(MoveKind.TABLEAU_TO_FOUNDATION);
+                    removeFromTableau(move.getSourcePile() - GameEvent.FIRST_TABLEAU);
+                } else {
+                    applyMove(MoveKind.WASTE_TO_FOUNDATION);
+                }
+                addToFoundation(card, move.getFoundationIndex());
+            }
+            return sequence;
+        } finally {
+            endUpdate();
+        }
     }
 
-    private boolean isRed(Card card) {
-        return card.getSuit() == Card.Suit.HEARTS || card.getSuit() == Card.Suit.DIAMONDS;
+    private static void locateCards(List<Card> pile, int pileId, Card[] cards, int[] pileOf, int[] indexOf) {
+        for (int i = 0; i < pile.size(); i++) {
+            Card card = pile.get(i);
+            int code = DealId.cardCode(card);
+            cards[code] = card;
+            pileOf[code] = pileId;
+            indexOf[code] = i;
+        }
     }
 
     public boolean isGameWon() {
-        boolean won = true;
-        for (FoundationPile foundation : foundations) {
-            if (foundation.size() != 13) { 
-                won = false;
-                break;
-            }
-        }
-        
-        if (won) {
-            calculateWinBonus();
-        }
-        
-        return won;
+        return foundationCardCount == 52;
+    }
+
+    public int getFoundationCardCount() {
+        return foundationCardCount;
+    }
+
+    // Bonus added to the score when the game was won, 0 until then.
+    public int getWinBonus() {
+        return winBonus;
     }
 
  
     public Card removeFromWaste() {
-        return waste.removeCard();
+        beginUpdate();
+        try {
+            Card card = waste.removeCard();
+            if (card != null) {
+                pileChanged(GameEvent.WASTE);
+            }
+            return card;
+        } finally {
+            endUpdate();
+        }
     }
 
     public Card removeFromTableau(int index) {
-        if (index >= 0 && index < 7) {
-            Card removed = tableaus[index].removeCard();
-  
-            if (removed != null && !tableaus[index].isEmpty()) {
-                Card newTop = tableaus[index].topCard();
-                if (newTop != null && !newTop.isFaceUp()) {
-                    newTop.setFaceUp(true);
-                    updateScore("TURN_OVER_TABLEAU_CARD");
-                    System.out.println("Flipped card: " + newTop.getRank() + " of " + newTop.getSuit());
+        beginUpdate();
+        try {
+            if (index >= 0 && index < 7) {
+                Card removed = tableaus[index].removeCard();
+                if (removed != null) {
+                    pileChanged(GameEvent.tableau(index));
+                    revealTableauTop(index);
                 }
+                return removed;
             }
-            return removed;
+            return null;
+        } finally {
+            endUpdate();
+        }
+    }
+
+    // Moves the cards from startIndex up in one block; a card uncovered in the
+    // source column is turned over once, after the whole run has left.
+    public boolean transferTableauRun(int sourceTableau, int startIndex, int targetTableau) {
+        beginUpdate();
+        try {
+            if (sourceTableau < 0 || sourceTableau >= 7 || targetTableau < 0 || targetTableau >= 7
+                    || sourceTableau == targetTableau) {
+                return false;
+            }
+            TableauPile source = tableaus[sourceTableau];
+            if (!source.transferTopN(tableaus[targetTableau], source.size() - startIndex)) {
+                return false;
+            }
+            pileChanged(GameEvent.tableau(sourceTableau));
+            pileChanged(GameEvent.tableau(targetTableau));
+            revealTableauTop(sourceTableau);
+            return true;
+        } finally {
+            endUpdate();
+        }
+    }
+
+    private void revealTableauTop(int index) {
+        Card newTop = tableaus[index].topCard();
+        if (newTop != null && !newTop.isFaceUp()) {
+            tableaus[index].flipTopCard();
+            pendingFlips.add(newTop);
+            applyMove(MoveKind.TURN_OVER_TABLEAU_CARD);
         }
-        return null;
     }
 
     public Card removeFromFoundation(int index) {
-        if (index >= 0 && index < 4) {
-            return foundations[index].removeCard();
+        beginUpdate();
+        try {
+            if (index >= 0 && index < 4) {
+                Card card = foundations[index].removeCard();
+                if (card != null) {
+                    foundationChanged(index, -1);
+                }
+                return card;
+            }
+            return null;
+        } finally {
+            endUpdate();
         }
-        return null;
     }
 
     public void addToFoundation(Card card, int index) {
-        if (index >= 0 && index < 4 && card != null) {
-            foundations[index].addCard(card);
+        beginUpdate();
+        try {
+            if (index >= 0 && index < 4 && card != null) {
+                foundations[index].addCard(card);
+                foundationChanged(index, 1);
+            }
+        } finally {
+            endUpdate();
         }
     }
 
     public void addToTableau(Card card, int index) {
-        if (index >= 0 && index < 7 && card != null) {
-            tableaus[index].addCard(card);
+        beginUpdate();
+        try {
+            if (index >= 0 && index < 7 && card != null) {
+                tableaus[index].addCard(card);
+                pileChanged(GameEvent.tableau(index));
+            }
+        } finally {
+            endUpdate();
         }
     }
 
     public void addToWaste(Card card) {
-        if (card != null) {
-            waste.addCard(card);
+        beginUpdate();
+        try {
+            if (card != null) {
+                waste.addCard(card);
+                pileChanged(GameEvent.WASTE);
+            }
+        } finally {
+            endUpdate();
         }
     }
 
     public void addToStock(Card card) {
-        if (card != null) {
-            stock.addCard(card);
+        beginUpdate();
+        try {
+            if (card != null) {
+                stock.addCard(card);
+                pileChanged(GameEvent.STOCK);
+            }
+        } finally {
+            endUpdate();
         }
     }
 
-    // FIXED: This method was causing the double undo issue
-    public void saveStateBeforeMove(String moveDescription) {
-        // Save state BEFORE making the move
-        saveGameState(moveDescription);
-        
-        // Apply score and move updates AFTER saving the state
-        if (moveDescription.contains("Foundation")) {
-            if (moveDescription.contains("Waste")) {
-                updateScore("WASTE_TO_FOUNDATION");
-            } else if (moveDescription.contains("Tableau")) {
-                updateScore("TABLEAU_TO_FOUNDATION");
-            }
-        } else if (moveDescription.contains("Tableau") && moveDescription.contains("Foundation")) {
-            updateScore("FOUNDATION_TO_TABLEAU");
-        } else {
-            // For other moves, just increment moves counter
-            moves++;
+    // Saves the undo state, then scores the move the caller is about to make.
+    public void recordMove(MoveKind kind) {
+        beginUpdate();
+        try {
+            saveGameState(kind);
+            applyMove(kind);
+        } finally {
+            endUpdate();
         }
     }
 
-    public List<Card> getTableauPile(int index) {
-        if (index >= 0 && index < 7) {
-            return tableaus[index].asList();
-        }
-        return new ArrayList<>();
+    public ScoringMode getScoringMode() {
+        return scoringMode;
+    }
+
+    public List<MoveKind> getMoveLog() {
+        return Collections.unmodifiableList(moveLog);
     }
 
-    public List<Card> getTableauPileAsList(int index) {
+    int getMoveLogSize() {
+        return moveLog.size();
+    }
+
+    // Drops log entries recorded after an undo point.
+    void truncateMoveLog(int size) {
+        moveLog.subList(size, moveLog.size()).clear();
+        timePenaltiesCharged = Collections.frequency(moveLog, MoveKind.TIME_PENALTY);
+    }
+
+    // Score rebuilt from the move log alone; always equals getScore().
+    public int recomputeScore() {
+        return scoringMode.replay(openingScore, moveLog) + winBonus;
+    }
+
+    // Copy of the pile; the GUI reads getTableauPileObject(index).view() instead.
+    public List<Card> getTableauPile(int index) {
         if (index >= 0 && index < 7) {
             return tableaus[index].asList();
         }
@@ -3,13 +3,16 @@ package solitaire.model;
 import javax.swing.*;
 import java.awt.*;
 
+import solitaire.gui.FrameScheduler;
+
 public class SplashScreen extends JFrame {
 
-    private Timer resizeTimer;
+    private FrameScheduler.Task resizeTask;
     private int targetWidth = 700;
     private int targetHeight = 450;
     private int currentWidth = 200;
     private int currentHeight = 150;
+    private final JLabel loading;
 
     public SplashScreen() {
         setUndecorated(true);
@@ -22,7 +25,7 @@ public class SplashScreen extends JFrame {
         title.setFont(new Font("Segoe UI", Font.BOLD, 28));
         title.setForeground(Color.WHITE);
 
-        JLabel loading = new JLabel("Loading...", SwingConstants.CENTER);
+        loading = new JLabel("Loading...", SwingConstants.CENTER);
         loading.setFont(new Font("Segoe UI", Font.PLAIN, 16));
         loading.setForeground(Color.LIGHT_GRAY);
 
@@ -36,21 +39,31 @@ public class SplashScreen extends JFrame {
         startResizeAnimation();
     }
 
+    public void setStatus(String status) {
+        loading.setText(status);
+    }
+
     private void startResizeAnimation() {
-        int delay = 10;
-        resizeTimer = new Timer(delay, e -> {
-            currentWidth += 10;
-            currentHeight += 6;
-
-            if (currentWidth >= targetWidth && currentHeight >= targetHeight) {
-                resizeTimer.stop();
-                setSize(targetWidth, targetHeight);
-                setLocationRelativeTo(null);
-            } else {
-                setSize(currentWidth, currentHeight);
-                setLocationRelativeTo(null);
-            }
+        // Grows by 1px wide and 0.6px high per millisecond, whatever the frame rate.
+        int startWidth = currentWidth;
+        int startHeight = currentHeight;
+        long startTime = System.nanoTime();
+        resizeTask = FrameScheduler.getInstance().animate(now -> {
+            long elapsedMillis = (now - startTime) / 1_000_000L;
+            currentWidth = (int) Math.min(targetWidth, startWidth + elapsedMillis);
+            currentHeight = (int) Math.min(targetHeight, startHeight + elapsedMillis * 6 / 10);
+
+            setSize(currentWidth, currentHeight);
+            setLocationRelativeTo(null);
+            return currentWidth < targetWidth || currentHeight < targetHeight;
         });
-        resizeTimer.start();
+    }
+
+    @Override
+    public void dispose() {
+        if (resizeTask != null) {
+            resizeTask.cancel();
+        }
+        super.dispose();
     }
 }
@@ -7,7 +7,7 @@ public class StockPile extends Pile {
     }
 
     public Card draw() {
-        return cards.isEmpty() ? null : cards.pop();
+        return removeCard();
     }
 
     @Override
@@ -2,45 +2,58 @@ package solitaire.model;
 
 public class TableauPile extends Pile {
 
+    // runStartAt[i] is the lowest index of the face-up, alternating-colour,
+    // descending run that ends at card i, or i + 1 when card i is face down.
+    // Entries below the top stay valid when cards are popped, so every update
+    // is O(1).
+    private final int[] runStartAt = new int[52];
+
     @Override
-    public boolean canAdd(Card card) {
-        if (card == null) return false;
-       
-        if (cards.isEmpty()) {
-            boolean canAdd = card.getRank() == Card.Rank.KING;
-            if (!canAdd) {
-                System.out.println("Empty tableau requires KING, got " + card.getRank());
-            }
-            return canAdd;
+    protected void cardsAdded(int fromIndex) {
+        for (int i = fromIndex; i < size(); i++) {
+            updateRunStart(i);
         }
+    }
 
+    // Turns the top card face up, keeping the run index in step.
+    public void flipTopCard() {
         Card top = topCard();
-        if (top == null) return false;
-        
+        if (top != null && !top.isFaceUp()) {
+            top.setFaceUp(true);
+            updateRunStart(size() - 1);
+        }
+    }
+
+    // Index of the first card of the run that can be picked up from this pile;
+    // equals size() when nothing can be moved.
+    public int getMovableRunStart() {
+        return isEmpty() ? 0 : runStartAt[size() - 1];
+    }
+
+    public boolean canMoveFrom(int index) {
+        return index >= getMovableRunStart() && index < size();
+    }
+
+    private void updateRunStart(int index) {
+        Card card = cardAt(index);
         if (!card.isFaceUp()) {
-            System.out.println("Cannot place face-down card on tableau");
-            return false;
+            runStartAt[index] = index + 1;
+        } else if (index > 0 && cardAt(index - 1).isFaceUp() && card.canStackOn(cardAt(index - 1))) {
+            runStartAt[index] = runStartAt[index - 1];
+        } else {
+            runStartAt[index] = index;
         }
-        
-        boolean differentColor = isRed(card) != isRed(top);
-        if (!differentColor) {
-            System.out.println("Cards must be different colors. " + 
-                             card.getSuit() + " and " + top.getSuit() + " are same color");
+    }
+
+    @Override
+    public boolean canAdd(Card card) {
+        if (card == null || !card.isFaceUp()) {
             return false;
         }
-        
-        boolean oneLower = card.getRank().ordinal() == top.getRank().ordinal() - 1;
-        if (!oneLower) {
-            System.out.println("Invalid rank sequence: trying to place " + card.getRank() + 
-                             " on " + top.getRank() + ". Should be " + 
-                             Card.Rank.values()[top.getRank().ordinal() - 1]);
-            return false;
+        if (isEmpty()) {
+            return card.getRank() == Card.Rank.KING;
         }
-
-        return true;
-    }
-
-    private boolean isRed(Card card) {
-        return card.getSuit() == Card.Suit.HEARTS || card.getSuit() == Card.Suit.DIAMONDS;
+        Card top = topCard();
+        return top.isFaceUp() && card.canStackOn(top);
     }
 }
\ No newline at end of file
@@ -0,0 +1,223 @@
+package solitaire.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache from position fingerprints (Position.fingerprint()) to
+ * AnalysisResults, shared by the hint service and the analyzer.
+ *
+ * Eviction uses the CLOCK approximation of LRU: every slot has a reference
+ * bit set on each hit, and the hand sweeping for a victim clears bits until it
+ * finds a slot that was not used since its last pass. Hits, misses and
+ * evictions are counted.
+ *
+ * With a persistence file set, results whose solvability is settled are
+ * loaded from it at once and written back by flush(), so solved positions
+ * survive restarts. All methods are thread safe.
+ */
+public class AnalysisCache {
+
+    private static final int FILE_MAGIC = 0x4b534143; // "KSAC"
+    // Version 2 has no UNSOLVABLE grade.
+    private static final int FILE_VERSION = 2;
+
+    private final int capacity;
+    private final long[] keys;
+    private final AnalysisResult[] values;
+    private final boolean[] referenced;
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private int size;
+    private int hand;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private Path persistenceFile;
+    private boolean dirty;
+
+    public AnalysisCache(int capacity) {
+        this.capacity = capacity;
+        keys = new long[capacity];
+        values = new AnalysisResult[capacity];
+        referenced = new boolean[capacity];
+    }
+
+    public synchronized AnalysisResult get(long fingerprint) {
+        Integer slot = slots.get(fingerprint);
+        if (slot == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        referenced[slot] = true;
+        return values[slot];
+    }
+
+    // Membership test that does not count as a hit or miss.
+    public synchronized boolean contains(long fingerprint) {
+        return slots.containsKey(fingerprint);
+    }
+
+    public synchronized void put(long fingerprint, AnalysisResult result) {
+        Integer existing = slots.get(fingerprint);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+        } else {
+            slot = size < capacity ? size++ : evict();
+            keys[slot] = fingerprint;
+            slots.put(fingerprint, slot);
+        }
+        values[slot] = result;
+        referenced[slot] = true;
+        if (result.getSolvability() != AnalysisResult.Solvability.UNKNOWN) {
+            dirty = true;
+        }
+    }
+
+    private int evict() {
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = (hand + 1) % capacity;
+        }
+        int victim = hand;
+        hand = (hand + 1) % capacity;
+        slots.remove(keys[victim]);
+        evictions++;
+        return victim;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public synchronized String getStats() {
+        return String.format("Analysis cache: %d/%d entries, %d hits, %d misses (%.1f%% hit rate), %d evictions",
+                size, capacity, hits, misses, getHitRate() * 100, evictions);
+    }
+
+    // Loads settled results from the file, if it exists, and saves to it on flush().
+    public synchronized void setPersistenceFile(Path file) throws IOException {
+        persistenceFile = file;
+        if (!Files.exists(file)) {
+            return;
+        }
+        // Nothing goes into the cache until the whole file has parsed.
+        Map<Long, AnalysisResult> loaded = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                throw new IOException("Not an analysis cache file: " + file);
+            }
+            int count = in.readInt();
+            AnalysisResult.Solvability[] grades = AnalysisResult.Solvability.values();
+            for (int i = 0; i < count; i++) {
+                long fingerprint = in.readLong();
+                // A corrupt file must fail as an IOException, not an index or size error.
+                int grade = in.readByte();
+                if (grade < 0 || grade >= grades.length) {
+                    throw new IOException("Bad solvability " + grade + " in " + file);
+                }
+                AnalysisResult.Solvability solvability = grades[grade];
+                int evaluation = in.readInt();
+                int depth = in.readByte();
+                int moveCount = in.readByte();
+                if (depth < 0 || moveCount < 0) {
+                    throw new IOException("Bad entry " + i + " in " + file);
+                }
+                int[] moves = new int[moveCount];
+                for (int m = 0; m < moves.length; m++) {
+                    moves[m] = in.readInt();
+                    if (!Move.isWellFormed(moves[m])) {
+                        throw new IOException("Bad move " + Integer.toHexString(moves[m])
+                                + " in entry " + i + " of " + file);
+                    }
+                }
+                loaded.put(fingerprint, new AnalysisResult(moves, evaluation, depth, solvability));
+            }
+        }
+        for (Map.Entry<Long, AnalysisResult> entry : loaded.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+        dirty = false;
+        System.out.println("Loaded " + size + " analysed positions from " + file);
+    }
+
+    // Writes every result with settled solvability to the persistence file.
+    public synchronized void flush() throws IOException {
+        if (persistenceFile == null || !dirty) {
+            return;
+        }
+        int count = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (values[slot].getSolvability() != AnalysisResult.Solvability.UNKNOWN) {
+                count++;
+            }
+        }
+        Path parent = persistenceFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        // Written beside the target and moved over it, so a crash mid-write
+        // leaves the previous file intact.
+        Path temp = Files.createTempFile(parent, persistenceFile.getFileName().toString(), ".tmp");
+        try {
+            write(temp, count);
+            Files.move(temp, persistenceFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        dirty = false;
+        System.out.println("Saved " + count + " analysed positions to " + persistenceFile);
+    }
+
+    private void write(Path file, int count) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(count);
+            for (int slot = 0; slot < size; slot++) {
+                AnalysisResult result = values[slot];
+                if (result.getSolvability() == AnalysisResult.Solvability.UNKNOWN) {
+                    continue;
+                }
+                int moves = Math.min(result.getMoveCount(), Byte.MAX_VALUE);
+                out.writeLong(keys[slot]);
+                out.writeByte(result.getSolvability().ordinal());
+                out.writeInt(result.getEvaluation());
+                out.writeByte(Math.min(result.getDepth(), Byte.MAX_VALUE));
+                out.writeByte(moves);
+                for (int m = 0; m < moves; m++) {
+                    out.writeInt(result.getMove(m));
+                }
+            }
+        }
+    }
+}
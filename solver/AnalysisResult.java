@@ -0,0 +1,81 @@
+package solitaire.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What is known about one position: its best moves (packed Moves, best
+ * first), an evaluation, the search depth behind them, and whether the solver
+ * has found a win from it. Immutable; the with...
+ * methods return updated copies.
+ */
+public final class AnalysisResult {
+
+    public enum Solvability {
+        UNKNOWN,
+        SOLVABLE
+    }
+
+    private final int[] moves;
+    private final int evaluation;
+    private final int depth;
+    private final Solvability solvability;
+
+    public AnalysisResult(int[] moves, int evaluation, int depth, Solvability solvability) {
+        this.moves = moves.clone();
+        this.evaluation = evaluation;
+        this.depth = depth;
+        this.solvability = solvability;
+    }
+
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    public int getMove(int index) {
+        return moves[index];
+    }
+
+    public int[] getMoves() {
+        return moves.clone();
+    }
+
+    public int getEvaluation() {
+        return evaluation;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public Solvability getSolvability() {
+        return solvability;
+    }
+
+    // Puts a deeper search's best move in front of the existing ranking.
+    public AnalysisResult withBestMove(int move, int evaluation, int depth) {
+        int[] ranked = new int[moves.length + 1];
+        ranked[0] = move;
+        int n = 1;
+        for (int m : moves) {
+            if (m != move) {
+                ranked[n++] = m;
+            }
+        }
+        return new AnalysisResult(Arrays.copyOf(ranked, n), evaluation, Math.max(depth, this.depth), solvability);
+    }
+
+    public AnalysisResult withSolvability(Solvability solvability) {
+        return new AnalysisResult(moves, evaluation, depth, solvability);
+    }
+
+    // Descriptions of up to limit moves, worded for the given position.
+    public List<String> describe(Position position, int limit) {
+        List<String> hints = new ArrayList<>(Math.min(limit, moves.length));
+        for (int i = 0; i < moves.length && hints.size() < limit; i++) {
+            hints.add(position.describe(moves[i]));
+        }
+        return hints;
+    }
+}
@@ -0,0 +1,267 @@
+package solitaire.solver;
+
+import java.util.Arrays;
+
+import solitaire.model.SolitaireGame;
+
+/**
+ * Anytime move search: iterative deepening under a time budget, always ready
+ * to answer with the best move of the deepest finished iteration.
+ *
+ * Each iteration searches one ply deeper than the last. Search values and
+ * best moves go into a transposition table that is kept between iterations
+ * and between calls, so after the player makes a move the shallower
+ * iterations for the new position are mostly table hits and the time goes to
+ * the new, deeper one. Positions are scored with HintEngine.evaluate().
+ *
+ * A search ends when the budget runs out, when stop() is called from another
+ * thread, or when the searching thread is interrupted.
+ */
+public class Analyzer {
+
+    public static final int MAX_DEPTH = 32;
+    private static final int DEFAULT_TABLE_BITS = 18;
+    private static final int CLOCK_CHECK_MASK = 0x3F;
+
+    private final HintEngine evaluator = new HintEngine(1);
+    private final int[][] moveBuffers = new int[MAX_DEPTH + 1][Position.MAX_MOVES];
+
+    // Transposition table: one slot per hash index, value exact for the stored depth.
+    private final int tableMask;
+    private final long[] tableKeys;
+    private final int[] tableValues;
+    private final int[] tableMoves;
+    private final byte[] tableDepths;
+
+    private volatile boolean stopRequested;
+    private long deadline;
+    private boolean aborted;
+    private long nodes;
+    private long tableHits;
+
+    public Analyzer() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    public Analyzer(int tableBits) {
+        int size = 1 << tableBits;
+        tableMask = size - 1;
+        tableKeys = new long[size];
+        tableValues = new int[size];
+        tableMoves = new int[size];
+        tableDepths = new byte[size];
+    }
+
+    public Analysis bestMove(SolitaireGame game, long budgetMillis) {
+        return bestMove(Position.of(game), budgetMillis);
+    }
+
+    public Analysis bestMove(Position root, long budgetMillis) {
+        long start = System.nanoTime();
+        deadline = start + budgetMillis * 1_000_000L;
+        stopRequested = false;
+        aborted = false;
+        nodes = 0;
+        tableHits = 0;
+
+        Position position = root.copy();
+        int[] moves = new int[Position.MAX_MOVES];
+        int count = position.generateMoves(moves);
+        int bestMove = -1;
+        int bestScore = evaluator.evaluate(position);
+        int completedDepth = 0;
+
+        for (int depth = 1; depth <= MAX_DEPTH && count > 0; depth++) {
+            int iterationMove = probeMove(position.hash(), moves, count);
+            int iterationScore = Integer.MIN_VALUE;
+            // Last iteration's best move first, then generation order.
+            if (iterationMove >= 0) {
+                iterationScore = searchMove(position, iterationMove, depth);
+            }
+            for (int i = 0; i < count && !aborted; i++) {
+                if (moves[i] == iterationMove) {
+                    continue;
+                }
+                int score = searchMove(position, moves[i], depth);
+                if (score > iterationScore) {
+                    iterationScore = score;
+                    iterationMove = moves[i];
+                }
+            }
+            if (aborted) {
+                break;
+            }
+            bestMove = iterationMove;
+            bestScore = iterationScore;
+            completedDepth = depth;
+            store(position.hash(), depth, bestScore, bestMove);
+            if (bestScore >= Integer.MAX_VALUE / 2) {
+                // A forced win was found; deeper search cannot improve it.
+                break;
+            }
+        }
+
+        // Always answer, even if not one iteration finished in time.
+        if (bestMove < 0 && count > 0) {
+            bestMove = moves[0];
+        }
+        return new Analysis(root.copy(), bestMove, bestScore, completedDepth, nodes, tableHits,
+                System.nanoTime() - start);
+    }
+
+    // Asks a search running on another thread to finish with what it has.
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public void clear() {
+        Arrays.fill(tableKeys, 0L);
+        Arrays.fill(tableDepths, (byte) 0);
+    }
+
+    private int searchMove(Position position, int move, int depth) {
+        int token = position.apply(move);
+        int score = search(position, depth - 1);
+        position.undo(move, token);
+        return score;
+    }
+
+    // Best score reachable within plies moves; stopping early is always allowed.
+    private int search(Position position, int plies) {
+        if ((++nodes & CLOCK_CHECK_MASK) == 0 && timeIsUp()) {
+            aborted = true;
+        }
+        if (aborted) {
+            return Integer.MIN_VALUE;
+        }
+        int standPat = evaluator.evaluate(position);
+        if (plies == 0 || position.isWon()) {
+            return standPat;
+        }
+
+        long hash = position.hash();
+        int slot = (int) hash & tableMask;
+        int hintMove = -1;
+        if (tableKeys[slot] == hash) {
+            if (tableDepths[slot] >= plies) {
+                tableHits++;
+                return tableValues[slot];
+            }
+            hintMove = tableMoves[slot];
+        }
+
+        int[] moves = moveBuffers[plies];
+        int count = position.generateMoves(moves);
+        int best = standPat;
+        int bestMove = -1;
+        if (hintMove >= 0) {
+            for (int i = 0; i < count; i++) {
+                if (moves[i] == hintMove) {
+                    moves[i] = moves[0];
+                    moves[0] = hintMove;
+                    break;
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int token = position.apply(moves[i]);
+            int score = search(position, plies - 1);
+            position.undo(moves[i], token);
+            if (aborted) {
+                return Integer.MIN_VALUE;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = moves[i];
+            }
+        }
+        store(hash, plies, best, bestMove);
+        return best;
+    }
+
+    private int probeMove(long hash, int[] moves, int count) {
+        int slot = (int) hash & tableMask;
+        if (tableKeys[slot] != hash) {
+            return -1;
+        }
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == tableMoves[slot]) {
+                return moves[i];
+            }
+        }
+        return -1;
+    }
+
+    // Keeps the deeper result when two searches of the same position collide.
+    private void store(long hash, int depth, int value, int move) {
+        int slot = (int) hash & tableMask;
+        if (tableKeys[slot] == hash && tableDepths[slot] > depth) {
+            return;
+        }
+        tableKeys[slot] = hash;
+        tableDepths[slot] = (byte) depth;
+        tableValues[slot] = value;
+        tableMoves[slot] = move;
+    }
+
+    private boolean timeIsUp() {
+        return stopRequested || System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Outcome of one bestMove() call. The move is -1 only when the position
+     * has no moves at all.
+     */
+    public static class Analysis {
+        private final Position position;
+        private final int move;
+        private final int score;
+        private final int depth;
+        private final long nodes;
+        private final long tableHits;
+        private final long elapsedNanos;
+
+        Analysis(Position position, int move, int score, int depth, long nodes, long tableHits, long elapsedNanos) {
+            this.position = position;
+            this.move = move;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.tableHits = tableHits;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public boolean hasMove() {
+            return move >= 0;
+        }
+
+        public int getMove() {
+            return move;
+        }
+
+        public String getDescription() {
+            return move >= 0 ? position.describe(move) : "No moves available";
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        // Deepest iteration that finished within the budget.
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+
+        public long getTableHits() {
+            return tableHits;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000L;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package solitaire.solver;
+
+/**
+ * Spots positions where nothing useful is left to do, so the player can be
+ * told before cycling the stock for nothing.
+ *
+ * Progress means a foundation higher than it was, a face-down card fewer, or
+ * a stock card fewer (played to the tableau). One full stock cycle shows every
+ * stock card, and stock cards are moves here, so a position counts as a dead
+ * end when no short line of moves makes progress. Lines may bring foundation
+ * cards down and rearrange runs for a few plies first, which covers setups
+ * such as lowering two foundation cards to take a run that uncovers a card.
+ *
+ * This is a heuristic, not a proof: a line longer than the depth, or one
+ * using a move the pruned move generator leaves out, may still make progress.
+ * Each check also stops after a fixed number of positions and then reports
+ * no dead end, so its cost has a hard bound.
+ *
+ * The detector keeps the move that made progress last time as a witness and
+ * tries it first after the next change; most moves leave it valid, so a check
+ * is usually one move list and one apply.
+ */
+public class DeadEndDetector {
+
+    public static final int DEFAULT_DEPTH = 4;
+    public static final int DEFAULT_NODE_LIMIT = 5_000;
+
+    private final int depth;
+    private final int nodeLimit;
+    private final int[][] moveBuffers;
+    private int witness = -1;
+    private final int[] rootFoundation = new int[4];
+    private int rootFaceDown;
+    private int rootTalon;
+    private long checks;
+    private long witnessHits;
+    private int nodes;
+
+    public DeadEndDetector() {
+        this(DEFAULT_DEPTH, DEFAULT_NODE_LIMIT);
+    }
+
+    public DeadEndDetector(int depth, int nodeLimit) {
+        this.depth = depth;
+        this.nodeLimit = nodeLimit;
+        this.moveBuffers = new int[depth + 1][Position.MAX_MOVES];
+    }
+
+    // True when no line of up to depth moves makes progress. False as well
+    // when the node limit runs out first.
+    public boolean isDeadEnd(Position position) {
+        checks++;
+        nodes = 0;
+        if (position.isWon()) {
+            return false;
+        }
+        for (int suit = 0; suit < 4; suit++) {
+            rootFoundation[suit] = position.getFoundationCount(suit);
+        }
+        rootFaceDown = position.getFaceDownTotal();
+        rootTalon = position.getTalonSize();
+
+        Position work = position.copy();
+        int[] moves = moveBuffers[depth];
+        int count = work.generateMoves(moves);
+        if (witness >= 0) {
+            for (int i = 0; i < count; i++) {
+                if (moves[i] == witness && leadsToProgress(work, witness, 1)) {
+                    witnessHits++;
+                    return false;
+                }
+            }
+        }
+        // Moves that progress at once are tried before longer lines.
+        for (int plies = 1; plies <= depth; plies++) {
+            for (int i = 0; i < count; i++) {
+                if (leadsToProgress(work, moves[i], plies)) {
+                    witness = nodes > nodeLimit ? -1 : moves[i];
+                    return false;
+                }
+            }
+        }
+        witness = -1;
+        return true;
+    }
+
+    // The first move of a line that made progress at the last check, or -1.
+    public int getWitness() {
+        return witness;
+    }
+
+    public long getChecks() {
+        return checks;
+    }
+
+    public long getWitnessHits() {
+        return witnessHits;
+    }
+
+    // Positions tried by the last check.
+    public int getNodes() {
+        return nodes;
+    }
+
+    public void reset() {
+        witness = -1;
+    }
+
+    // Out of budget counts as progress, so a cut-off check is never a dead end.
+    private boolean leadsToProgress(Position position, int move, int plies) {
+        if (++nodes > nodeLimit) {
+            return true;
+        }
+        int token = position.apply(move);
+        try {
+            if (madeProgress(position)) {
+                return true;
+            }
+            if (plies == 1) {
+                return false;
+            }
+            int[] moves = moveBuffers[plies - 1];
+            int count = position.generateMoves(moves);
+            for (int i = 0; i < count; i++) {
+                if (leadsToProgress(position, moves[i], plies - 1)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            position.undo(move, token);
+        }
+    }
+
+    private boolean madeProgress(Position position) {
+        if (position.getFaceDownTotal() < rootFaceDown || position.getTalonSize() < rootTalon) {
+            return true;
+        }
+        for (int suit = 0; suit < 4; suit++) {
+            if (position.getFoundationCount(suit) > rootFoundation[suit]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
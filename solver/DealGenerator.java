@@ -0,0 +1,64 @@
+package solitaire.solver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import solitaire.model.DealId;
+import solitaire.model.DealLibrary;
+import solitaire.model.Difficulty;
+
+/**
+ * Offline tool that solves seeded random deals and writes the winnable ones,
+ * graded by difficulty, to a DealLibrary file. Run:
+ *
+ *   java solitaire.solver.DealGenerator [deals] [seed] [nodeLimit] [output] [tableMegabytes]
+ *
+ * tableMegabytes sizes the solver's off-heap table of seen positions; tables
+ * over the JVM's direct memory limit need -XX:MaxDirectMemorySize as well.
+ * The same seed always produces the same library.
+ */
+public class DealGenerator {
+
+    public static void main(String[] args) throws IOException {
+        int deals = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        long nodeLimit = args.length > 2 ? Long.parseLong(args[2]) : 200_000L;
+        Path output = Paths.get(args.length > 3 ? args[3] : "deals.ksdl");
+
+        Random random = new Random(seed);
+        Solver solver = args.length > 4
+                ? new Solver(nodeLimit, false, new TranspositionTable(Long.parseLong(args[4]) << 20))
+                : new Solver(nodeLimit);
+        List<DealLibrary.Entry> entries = new ArrayList<>();
+        int[] perGrade = new int[Difficulty.values().length];
+        long totalNodes = 0;
+        long start = System.nanoTime();
+
+        for (int i = 1; i <= deals; i++) {
+            DealId dealId = DealId.random(random);
+            Solver.Result result = solver.solve(Position.deal(dealId));
+            totalNodes += result.getNodes();
+            if (result.isSolved()) {
+                Difficulty difficulty = Difficulty.forSearchNodes(result.getNodes());
+                entries.add(new DealLibrary.Entry(dealId, result.getSolutionLength(),
+                        result.getNodes(), result.getDeadEnds(), difficulty));
+                perGrade[difficulty.ordinal()]++;
+            }
+            if (i % 100 == 0 || i == deals) {
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%d/%d deals, %d solvable, %.0f nodes/s%n",
+                        i, deals, entries.size(), totalNodes / seconds);
+            }
+        }
+
+        DealLibrary.write(output, entries);
+        System.out.println("Wrote " + entries.size() + " deals to " + output);
+        for (Difficulty difficulty : Difficulty.values()) {
+            System.out.println("  " + difficulty.getLabel() + ": " + perGrade[difficulty.ordinal()]);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package solitaire.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import solitaire.model.DealId;
+
+/**
+ * Breadth-first search over every position reachable from a deal, with the
+ * frontier and the set of seen positions kept on disk instead of in memory.
+ * It answers questions a bounded depth-first search cannot: whether a deal can
+ * be won at all under the solver's moves, and the fewest moves that win it
+ * (talon plays count as one move, as everywhere in the solver).
+ *
+ * Positions are stored packed (Position.pack()), so symmetric positions are
+ * one record. Each layer is handled in three steps:
+ * - the current layer file is streamed in and every successor goes into a
+ *   memory chunk, which is sorted, deduplicated and written out as a
+ *   compressed run whenever it fills;
+ * - the runs and the file of every position seen so far are merged in one
+ *   sequential pass;
+ * - the merge writes the new seen file, and the positions it had not seen
+ *   before become the next layer.
+ * Progress, bytes written and states per second are printed after every
+ * layer. Run:
+ *
+ *   java solitaire.solver.ExternalBfs [dealId|seed] [workDir] [maxLayers] [chunkStates]
+ */
+public class ExternalBfs {
+
+    private static final int WORDS = Position.PACKED_WORDS;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long REPORT_EVERY_NANOS = 10_000_000_000L;
+
+    private final Path workDir;
+    private final int chunkStates;
+    private final long[] chunk;
+    private final long[] pivot = new long[WORDS];
+    private int chunkSize;
+    private final List<Path> runs = new ArrayList<>();
+
+    private long bytesWritten;
+    private long expanded;
+    private long generated;
+    private long startNanos;
+    private long lastReportNanos;
+
+    public ExternalBfs(Path workDir, int chunkStates) {
+        this.workDir = workDir;
+        this.chunkStates = chunkStates;
+        this.chunk = new long[chunkStates * WORDS];
+    }
+
+    public Result explore(Position start, int maxLayers) throws IOException {
+        Files.createDirectories(workDir);
+        deleteStaleFiles();
+        bytesWritten = 0;
+        expanded = 0;
+        generated = 0;
+        startNanos = System.nanoTime();
+        lastReportNanos = startNanos;
+        if (start.isWon()) {
+            return new Result(0, true, 0, 1, 0, 0);
+        }
+
+        long[] record = new long[WORDS];
+        start.pack(record, 0);
+        Path layer = workDir.resolve("layer-0.bin");
+        Path seen = workDir.resolve("seen-0.bin");
+        try (DataOutputStream out = openWriter(layer)) {
+            writeRecord(out, record, 0);
+        }
+        Files.copy(layer, seen);
+        bytesWritten += Files.size(layer) + Files.size(seen);
+
+        long total = 1;
+        long layerSize = 1;
+        int depth = 0;
+        int winningDepth = -1;
+        while (layerSize > 0 && depth < maxLayers && winningDepth < 0) {
+            if (expand(layer, depth)) {
+                winningDepth = depth + 1;
+            }
+            Path nextLayer = workDir.resolve("layer-" + (depth + 1) + ".bin");
+            Path nextSeen = workDir.resolve("seen-" + (depth + 1) + ".bin");
+            layerSize = merge(seen, nextSeen, nextLayer);
+            Files.delete(layer);
+            Files.delete(seen);
+            layer = nextLayer;
+            seen = nextSeen;
+            total += layerSize;
+            depth++;
+            report(String.format("layer %d: %,d new states, %,d seen", depth, layerSize, total));
+        }
+        Files.deleteIfExists(layer);
+        Files.deleteIfExists(seen);
+
+        boolean exhausted = layerSize == 0 && winningDepth < 0;
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        return new Result(winningDepth, exhausted, depth, total, bytesWritten, elapsedMillis);
+    }
+
+    // Files an aborted run left behind would clash with this run's names.
+    private void deleteStaleFiles() throws IOException {
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(workDir, "{layer,seen,run}-*.bin")) {
+            for (Path file : stale) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // Writes the successors of every position in the layer as sorted runs;
+    // true if one of them is won.
+    private boolean expand(Path layer, int depth) throws IOException {
+        int[] moves = new int[Position.MAX_MOVES];
+        boolean won = false;
+        runs.clear();
+        chunkSize = 0;
+        try (RunReader reader = new RunReader(layer, false)) {
+            while (reader.next()) {
+                Position position = Position.unpack(reader.record, 0);
+                int count = position.generateMoves(moves);
+                for (int i = 0; i < count; i++) {
+                    int token = position.apply(moves[i]);
+                    won |= position.isWon();
+                    if (chunkSize == chunkStates) {
+                        spillChunk(depth);
+                    }
+                    position.pack(chunk, chunkSize++ * WORDS);
+                    position.undo(moves[i], token);
+                }
+                generated += count;
+                expanded++;
+                if (System.nanoTime() - lastReportNanos > REPORT_EVERY_NANOS) {
+                    report(String.format("layer %d: expanding, %,d runs", depth + 1, runs.size()));
+                }
+            }
+        }
+        spillChunk(depth);
+        return won;
+    }
+
+    private void spillChunk(int depth) throws IOException {
+        if (chunkSize == 0) {
+            return;
+        }
+        sort(0, chunkSize - 1);
+        Path run = workDir.resolve("run-" + (depth + 1) + "-" + runs.size() + ".bin");
+        try (DataOutputStream out = openWriter(run)) {
+            for (int i = 0; i < chunkSize; i++) {
+                if (i == 0 || compare(chunk, i * WORDS, chunk, (i - 1) * WORDS) != 0) {
+                    writeRecord(out, chunk, i * WORDS);
+                }
+            }
+        }
+        bytesWritten += Files.size(run);
+        runs.add(run);
+        chunkSize = 0;
+    }
+
+    // Merges the runs into the seen file; returns the number of new states.
+    private long merge(Path seen, Path nextSeen, Path nextLayer) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(
+                (a, b) -> compare(a.record, 0, b.record, 0));
+        List<RunReader> readers = new ArrayList<>();
+        long fresh = 0;
+        try (DataOutputStream seenOut = openWriter(nextSeen);
+             DataOutputStream layerOut = openWriter(nextLayer)) {
+            readers.add(new RunReader(seen, true));
+            for (Path run : runs) {
+                readers.add(new RunReader(run, false));
+            }
+            for (RunReader reader : readers) {
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+            long[] current = new long[WORDS];
+            while (!queue.isEmpty()) {
+                System.arraycopy(queue.peek().record, 0, current, 0, WORDS);
+                boolean known = false;
+                // Every source holding this state moves past it.
+                while (!queue.isEmpty() && compare(queue.peek().record, 0, current, 0) == 0) {
+                    RunReader reader = queue.poll();
+                    known |= reader.seen;
+                    if (reader.next()) {
+                        queue.add(reader);
+                    }
+                }
+                writeRecord(seenOut, current, 0);
+                if (!known) {
+                    writeRecord(layerOut, current, 0);
+                    fresh++;
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+        for (Path run : runs) {
+            Files.delete(run);
+        }
+        bytesWritten += Files.size(nextSeen) + Files.size(nextLayer);
+        return fresh;
+    }
+
+    private void report(String progress) {
+        long now = System.nanoTime();
+        double seconds = (now - startNanos) / 1e9;
+        System.out.printf("%s; %,d expanded, %,d generated, %.1f MB written, %,.0f states/s, %.0f s%n",
+                progress, expanded, generated, bytesWritten / 1e6, expanded / Math.max(seconds, 1e-9), seconds);
+        lastReportNanos = now;
+    }
+
+    // Three-way quicksort of the chunk's records; duplicates are common.
+    private void sort(int lo, int hi) {
+        while (lo < hi) {
+            System.arraycopy(chunk, ((lo + hi) >>> 1) * WORDS, pivot, 0, WORDS);
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                int c = compare(chunk, i * WORDS, pivot, 0);
+                if (c < 0) {
+                    swap(lt++, i++);
+                } else if (c > 0) {
+                    swap(i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            // Recurse into the smaller side to bound the stack depth.
+            if (lt - lo < hi - gt) {
+                sort(lo, lt - 1);
+                lo = gt + 1;
+            } else {
+                sort(gt + 1, hi);
+                hi = lt - 1;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        for (int w = 0; w < WORDS; w++) {
+            long t = chunk[a * WORDS + w];
+            chunk[a * WORDS + w] = chunk[b * WORDS + w];
+            chunk[b * WORDS + w] = t;
+        }
+    }
+
+    private static int compare(long[] a, int aOffset, long[] b, int bOffset) {
+        for (int w = 0; w < WORDS; w++) {
+            int c = Long.compare(a[aOffset + w], b[bOffset + w]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private static DataOutputStream openWriter(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(
+                Files.newOutputStream(file), new Deflater(Deflater.BEST_SPEED), BUFFER_BYTES), BUFFER_BYTES));
+    }
+
+    private static void writeRecord(DataOutputStream out, long[] words, int offset) throws IOException {
+        for (int w = 0; w < WORDS; w++) {
+            out.writeLong(words[offset + w]);
+        }
+    }
+
+    // Streams the records of one sorted file.
+    private static final class RunReader implements AutoCloseable {
+        final long[] record = new long[WORDS];
+        final boolean seen;
+        private final DataInputStream in;
+
+        RunReader(Path file, boolean seen) throws IOException {
+            this.seen = seen;
+            in = new DataInputStream(new BufferedInputStream(
+                    new InflaterInputStream(Files.newInputStream(file)), BUFFER_BYTES));
+        }
+
+        boolean next() throws IOException {
+            try {
+                for (int w = 0; w < WORDS; w++) {
+                    record[w] = in.readLong();
+                }
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    public static class Result {
+        private final int winningDepth;
+        private final boolean exhausted;
+        private final int layers;
+        private final long states;
+        private final long bytesWritten;
+        private final long elapsedMillis;
+
+        Result(int winningDepth, boolean exhausted, int layers, long states, long bytesWritten,
+                long elapsedMillis) {
+            this.winningDepth = winningDepth;
+            this.exhausted = exhausted;
+            this.layers = layers;
+            this.states = states;
+            this.bytesWritten = bytesWritten;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public boolean isSolved() {
+            return winningDepth >= 0;
+        }
+
+        // Fewest moves that win, or -1 if no win was found.
+        public int getShortestSolution() {
+            return winningDepth;
+        }
+
+        // True when every position the pruned move generator reaches was
+        // explored without a win; like Solver's, not a proof of a lost deal.
+        public boolean isExhausted() {
+            return exhausted;
+        }
+
+        public int getLayers() {
+            return layers;
+        }
+
+        public long getStates() {
+            return states;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String deal = args.length > 0 ? args[0] : "1";
+        Path workDir = Paths.get(args.length > 1 ? args[1] : "bfs-work");
+        int maxLayers = args.length > 2 ? Integer.parseInt(args[2]) : Solver.MAX_DEPTH;
+        int chunkStates = args.length > 3 ? Integer.parseInt(args[3]) : 1 << 20;
+
+        // A long hex string is a deal id; anything else seeds a random deal.
+        DealId dealId = deal.length() > 16
+                ? DealId.parse(deal)
+                : DealId.random(new Random(Long.parseLong(deal)));
+        System.out.println("Exploring deal " + dealId + " in " + workDir.toAbsolutePath());
+        Result result = new ExternalBfs(workDir, chunkStates).explore(Position.deal(dealId), maxLayers);
+        if (result.isSolved()) {
+            System.out.println("Winnable; shortest solution: " + result.getShortestSolution() + " moves");
+        } else if (result.isExhausted()) {
+            System.out.println("No win among all " + result.getStates() + " positions the move generator reaches");
+        } else {
+            System.out.println("No win within " + result.getLayers() + " moves");
+        }
+        System.out.printf("%,d states, %.1f MB written, %.1f s%n",
+                result.getStates(), result.getBytesWritten() / 1e6, result.getElapsedMillis() / 1000.0);
+    }
+}
@@ -0,0 +1,186 @@
+package solitaire.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranks the moves of a position by looking a few plies ahead.
+ *
+ * Each candidate is applied and the best position reachable within the
+ * lookahead depth is scored on foundation progress, face-down cards left,
+ * the deepest face-down pile, empty columns, and how many stock cards could
+ * still be played. A line may also stop early, so one bad follow-up never
+ * drags a good move down.
+ *
+ * Like the solver, the engine sees every card: talon moves name stock cards
+ * the player has not drawn yet, and lines that turn over a face-down card
+ * score what is really underneath. Hints are therefore stronger than a
+ * player could work out from the table alone.
+ *
+ * Results come back as a Ranking that hands out moves best first through a
+ * heap, so asking for the top three does three pops and builds three strings.
+ */
+public class HintEngine {
+
+    public static final int DEFAULT_DEPTH = 3;
+
+    private static final int FOUNDATION_WEIGHT = 100;
+    private static final int FACE_DOWN_WEIGHT = 60;
+    private static final int EMPTY_COLUMN_WEIGHT = 30;
+    private static final int PLAYABLE_STOCK_WEIGHT = 8;
+    private static final int DEEPEST_FACE_DOWN_WEIGHT = 20;
+
+    private final int depth;
+    private final int[][] moveBuffers;
+    private long evaluations;
+
+    public HintEngine() {
+        this(DEFAULT_DEPTH);
+    }
+
+    public HintEngine(int depth) {
+        this.depth = depth;
+        this.moveBuffers = new int[depth + 1][Position.MAX_MOVES];
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    // Scores every move of the position. Stops early, with the moves scored
+    // so far, if the calling thread is interrupted.
+    public Ranking rank(Position position) {
+        Position work = position.copy();
+        int[] moves = new int[Position.MAX_MOVES];
+        int count = work.generateMoves(moves);
+        long[] keys = new long[count];
+        int scored = 0;
+        for (int i = 0; i < count; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            int token = work.apply(moves[i]);
+            int score = lookahead(work, depth - 1);
+            work.undo(moves[i], token);
+            // Higher score first, then generation order.
+            keys[scored++] = (long) score << 32 | (0xFFFFFFFFL & ~i);
+        }
+        return new Ranking(work, moves, keys, scored);
+    }
+
+    private int lookahead(Position position, int plies) {
+        int best = evaluate(position);
+        if (plies == 0 || position.isWon()) {
+            return best;
+        }
+        int[] moves = moveBuffers[plies];
+        int count = position.generateMoves(moves);
+        for (int i = 0; i < count; i++) {
+            int token = position.apply(moves[i]);
+            best = Math.max(best, lookahead(position, plies - 1));
+            position.undo(moves[i], token);
+        }
+        return best;
+    }
+
+    public int evaluate(Position position) {
+        evaluations++;
+        if (position.isWon()) {
+            return Integer.MAX_VALUE / 2;
+        }
+        int emptyColumns = 0;
+        int deepestFaceDown = 0;
+        for (int col = 0; col < Position.COLUMNS; col++) {
+            if (position.getColumnSize(col) == 0) {
+                emptyColumns++;
+            }
+            deepestFaceDown = Math.max(deepestFaceDown, position.getFaceDownCount(col));
+        }
+        return position.getFoundationTotal() * FOUNDATION_WEIGHT
+                - position.getFaceDownTotal() * FACE_DOWN_WEIGHT
+                + emptyColumns * EMPTY_COLUMN_WEIGHT
+                + playableStockCards(position) * PLAYABLE_STOCK_WEIGHT
+                - deepestFaceDown * DEEPEST_FACE_DOWN_WEIGHT;
+    }
+
+    // Talon cards that have somewhere to go right now.
+    private static int playableStockCards(Position position) {
+        int playable = 0;
+        for (int i = 0; i < position.getTalonSize(); i++) {
+            int card = position.talonCard(i);
+            if (position.fitsFoundation(card)) {
+                playable++;
+                continue;
+            }
+            for (int col = 0; col < Position.COLUMNS; col++) {
+                int size = position.getColumnSize(col);
+                if (size == 0 ? Position.rank(card) == 12 : Position.canStack(card, position.cardAt(col, size - 1))) {
+                    playable++;
+                    break;
+                }
+            }
+        }
+        return playable;
+    }
+
+    /**
+     * Scored moves of one position, handed out best first. The heap is built
+     * once in linear time; each next() is one pop.
+     */
+    public static class Ranking {
+        private final Position position;
+        private final int[] moves;
+        private final long[] heap;
+        private int size;
+
+        Ranking(Position position, int[] moves, long[] keys, int size) {
+            this.position = position;
+            this.moves = moves;
+            this.heap = keys;
+            this.size = size;
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        public boolean hasNext() {
+            return size > 0;
+        }
+
+        // Best remaining move as a packed Move.
+        public int next() {
+            long top = heap[0];
+            heap[0] = heap[--size];
+            siftDown(0);
+            return moves[~(int) top];
+        }
+
+        // Descriptions of up to k of the best remaining moves.
+        public List<String> top(int k) {
+            List<String> hints = new ArrayList<>(Math.min(k, size));
+            while (hints.size() < k && hasNext()) {
+                hints.add(position.describe(next()));
+            }
+            return hints;
+        }
+
+        private void siftDown(int i) {
+            long value = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] > heap[child]) {
+                    child++;
+                }
+                if (heap[child] <= value) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = value;
+        }
+    }
+}
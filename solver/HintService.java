@@ -0,0 +1,181 @@
+package solitaire.solver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Works out hints on a background thread so the Event Dispatch Thread never
+ * waits on analysis.
+ *
+ * The GUI reports every new position; analysis starts straight away and any
+ * run for an older position is cancelled. Each run ranks the moves with
+ * HintEngine, then gives the solver a small budget to find a win from the
+ * position. Results go into an AnalysisCache as moves, not text, so asking
+ * for hints after a short think, or after an undo back to a known position,
+ * is a lookup plus a few descriptions. If analysis is still
+ * running when hints are asked for, the caller waits at most the given time
+ * and then gets the plain list of legal moves instead. Best-move searches
+ * and dead-end checks run on the same thread and report back through
+ * callbacks.
+ */
+public class HintService {
+
+    private static final long SOLVER_NODE_LIMIT = 20_000;
+
+    private final int maxHints;
+    private final AnalysisCache cache;
+    private final HintEngine engine = new HintEngine();
+    private final Solver solver = new Solver(SOLVER_NODE_LIMIT);
+    // Used only on the executor thread; its table carries over between searches.
+    private final Analyzer analyzer = new Analyzer();
+    private final DeadEndDetector deadEndDetector = new DeadEndDetector();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hint-analysis");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    // Guarded by this.
+    private Future<AnalysisResult> pending;
+    private long pendingKey;
+
+    public HintService(int maxHints, AnalysisCache cache) {
+        this.maxHints = maxHints;
+        this.cache = cache;
+    }
+
+    public AnalysisCache getCache() {
+        return cache;
+    }
+
+    // Starts analysing a new position, dropping work on any earlier one.
+    public synchronized void positionChanged(Position position) {
+        long key = position.fingerprint();
+        if ((pending != null && pendingKey == key && !pending.isCancelled()) || executor.isShutdown()
+                || cache.contains(key)) {
+            return;
+        }
+        if (pending != null) {
+            pending.cancel(true);
+        }
+        Position snapshot = position.copy();
+        pendingKey = key;
+        pending = executor.submit(() -> {
+            // The ranking is cached before the slower solvability check.
+            AnalysisResult result = rank(snapshot);
+            if (!Thread.currentThread().isInterrupted()) {
+                cache.put(key, result);
+                result = settle(snapshot, result);
+            }
+            if (!Thread.currentThread().isInterrupted()) {
+                cache.put(key, result);
+            }
+            return result;
+        });
+    }
+
+    // Best known analysis, waiting at most maxWaitMillis for a run in progress.
+    public AnalysisResult getAnalysis(Position position, long maxWaitMillis) {
+        long key = position.fingerprint();
+        Future<AnalysisResult> future;
+        synchronized (this) {
+            AnalysisResult cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            positionChanged(position);
+            future = pendingKey == key ? pending : null;
+        }
+        if (future != null) {
+            try {
+                return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | CancellationException | ExecutionException e) {
+                System.out.println("Hint analysis not ready, using quick hints");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return legalMoves(position);
+    }
+
+    // Runs a time-boxed best-move search on the analysis thread, caches the
+    // move and hands the result to callback on that thread.
+    public synchronized void findBestMove(Position position, long budgetMillis,
+            Consumer<Analyzer.Analysis> callback) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        Position snapshot = position.copy();
+        long key = snapshot.fingerprint();
+        executor.execute(() -> {
+            Analyzer.Analysis analysis = analyzer.bestMove(snapshot, budgetMillis);
+            if (analysis.hasMove()) {
+                AnalysisResult cached = cache.get(key);
+                AnalysisResult known = cached != null ? cached : new AnalysisResult(new int[0],
+                        analysis.getScore(), 0, AnalysisResult.Solvability.UNKNOWN);
+                cache.put(key, known.withBestMove(analysis.getMove(), analysis.getScore(), analysis.getDepth()));
+            }
+            callback.accept(analysis);
+        });
+    }
+
+    // Runs the capped dead-end check on the analysis thread and, if the
+    // position looks like one, calls onDeadEnd on that thread.
+    public synchronized void checkDeadEnd(Position position, Runnable onDeadEnd) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        Position snapshot = position.copy();
+        executor.execute(() -> {
+            if (deadEndDetector.isDeadEnd(snapshot)) {
+                onDeadEnd.run();
+            }
+        });
+    }
+
+    public List<String> getHints(Position position, long maxWaitMillis) {
+        return getAnalysis(position, maxWaitMillis).describe(position, maxHints);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // The two analysis steps, run only on the executor thread.
+    private AnalysisResult rank(Position position) {
+        HintEngine.Ranking ranking = engine.rank(position);
+        int[] moves = new int[maxHints];
+        int n = 0;
+        while (n < maxHints && ranking.hasNext()) {
+            moves[n++] = ranking.next();
+        }
+        return new AnalysisResult(Arrays.copyOf(moves, n), engine.evaluate(position),
+                HintEngine.DEFAULT_DEPTH, AnalysisResult.Solvability.UNKNOWN);
+    }
+
+    private AnalysisResult settle(Position position, AnalysisResult result) {
+        Solver.Result solved = solver.solve(position);
+        // A search that runs out without a win proves nothing, since the
+        // solver prunes moves, so only a found win is recorded.
+        if (solved.isSolved()) {
+            return result.withSolvability(AnalysisResult.Solvability.SOLVABLE);
+        }
+        return result;
+    }
+
+    // Legal moves in generation order: foundation plays, then tableau, then talon.
+    public static AnalysisResult legalMoves(Position position) {
+        int[] moves = new int[Position.MAX_MOVES];
+        int count = position.generateMoves(moves);
+        return new AnalysisResult(Arrays.copyOf(moves, count), 0, 0, AnalysisResult.Solvability.UNKNOWN);
+    }
+}
@@ -0,0 +1,107 @@
+package solitaire.solver;
+
+/**
+ * Solver moves packed into a single int so move lists are plain int arrays.
+ *
+ * Bits 0-3 hold the kind, 4-8 the source (tableau column, talon index or
+ * foundation suit), 9-12 the target (tableau column or foundation suit) and
+ * 13-17 the number of cards moved between tableau columns.
+ *
+ * Talon moves are macro moves: with one-card draws and unlimited redeals any
+ * card in the stock or waste can be reached, so "play talon card i" stands for
+ * the draws needed to uncover it plus the play itself.
+ */
+public final class Move {
+
+    public static final int TABLEAU_TO_FOUNDATION = 0;
+    public static final int TALON_TO_FOUNDATION = 1;
+    public static final int TABLEAU_TO_TABLEAU = 2;
+    public static final int TALON_TO_TABLEAU = 3;
+    public static final int FOUNDATION_TO_TABLEAU = 4;
+
+    private Move() {
+    }
+
+    public static int of(int kind, int source, int target, int count) {
+        return kind | source << 4 | target << 9 | count << 13;
+    }
+
+    public static int kind(int move) {
+        return move & 0xF;
+    }
+
+    public static int source(int move) {
+        return (move >>> 4) & 0x1F;
+    }
+
+    public static int target(int move) {
+        return (move >>> 9) & 0xF;
+    }
+
+    public static int count(int move) {
+        return (move >>> 13) & 0x1F;
+    }
+
+    public static boolean isToFoundation(int move) {
+        int kind = kind(move);
+        return kind == TABLEAU_TO_FOUNDATION || kind == TALON_TO_FOUNDATION;
+    }
+
+    // True when every field is in range for the move's kind, so describing or
+    // applying it cannot index outside a Position. Says nothing about whether
+    // the move is legal in a particular position.
+    public static boolean isWellFormed(int move) {
+        if (move >>> 18 != 0) {
+            return false;
+        }
+        int source = source(move);
+        int target = target(move);
+        int count = count(move);
+        switch (kind(move)) {
+            case TABLEAU_TO_FOUNDATION:
+                return source < Position.COLUMNS && target < 4 && count == 1;
+            case TALON_TO_FOUNDATION:
+                return source < Position.TALON_CAPACITY && target < 4 && count == 1;
+            case TABLEAU_TO_TABLEAU:
+                return source < Position.COLUMNS && target < Position.COLUMNS && source != target
+                        && count >= 1 && count <= Position.COLUMN_CAPACITY;
+            case TALON_TO_TABLEAU:
+                return source < Position.TALON_CAPACITY && target < Position.COLUMNS && count == 1;
+            case FOUNDATION_TO_TABLEAU:
+                return source < 4 && target < Position.COLUMNS && count == 1;
+            default:
+                return false;
+        }
+    }
+
+    // Renumbers the tableau columns a move uses: column c becomes columns[c].
+    public static int mapColumns(int move, int[] columns) {
+        int kind = kind(move);
+        int source = source(move);
+        int target = target(move);
+        if (kind == TABLEAU_TO_FOUNDATION || kind == TABLEAU_TO_TABLEAU) {
+            source = columns[source];
+        }
+        if (kind == TABLEAU_TO_TABLEAU || kind == TALON_TO_TABLEAU || kind == FOUNDATION_TO_TABLEAU) {
+            target = columns[target];
+        }
+        return of(kind, source, target, count(move));
+    }
+
+    public static String toString(int move) {
+        switch (kind(move)) {
+            case TABLEAU_TO_FOUNDATION:
+                return "T" + (source(move) + 1) + "->F";
+            case TALON_TO_FOUNDATION:
+                return "S" + source(move) + "->F";
+            case TABLEAU_TO_TABLEAU:
+                return "T" + (source(move) + 1) + "->T" + (target(move) + 1) + "x" + count(move);
+            case TALON_TO_TABLEAU:
+                return "S" + source(move) + "->T" + (target(move) + 1);
+            case FOUNDATION_TO_TABLEAU:
+                return "F" + source(move) + "->T" + (target(move) + 1);
+            default:
+                return "?";
+        }
+    }
+}
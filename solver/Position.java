@@ -0,0 +1,603 @@
+package solitaire.solver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import solitaire.model.Card;
+import solitaire.model.DealId;
+import solitaire.model.SolitaireGame;
+
+/**
+ * Compact, mutable Klondike position for search: card codes in byte arrays,
+ * moves applied and undone in place, and a Zobrist hash kept up to date on
+ * every change.
+ *
+ * The stock and waste are held as one talon in draw order plus the number of
+ * cards already drawn. With one-card draws and unlimited redeals every talon
+ * card stays reachable, so the draw pointer does not change which moves exist
+ * and is left out of the hash.
+ *
+ * Cards use DealId codes: suit.ordinal() * 13 + rank.ordinal(). Foundations
+ * are indexed by suit ordinal, which matches SolitaireGame's foundation order.
+ */
+public final class Position {
+
+    public static final int COLUMNS = 7;
+    public static final int COLUMN_CAPACITY = 20;
+    public static final int TALON_CAPACITY = 24;
+    public static final int MAX_MOVES = 256;
+
+    private static final int CARDS = 52;
+    private static final int KING = 12;
+
+    private static final long[] TABLEAU_KEYS = new long[CARDS * COLUMNS * COLUMN_CAPACITY * 2];
+    private static final long[] FOUNDATION_KEYS = new long[4 * 14];
+    private static final long[] TALON_KEYS = new long[CARDS];
+
+    static {
+        Random random = new Random(0x6b6c6f6e64696b65L);
+        fillKeys(TABLEAU_KEYS, random);
+        fillKeys(FOUNDATION_KEYS, random);
+        fillKeys(TALON_KEYS, random);
+    }
+
+    private final byte[] tableau = new byte[COLUMNS * COLUMN_CAPACITY];
+    private final int[] columnSize = new int[COLUMNS];
+    private final int[] faceDown = new int[COLUMNS];
+    private final int[] foundation = new int[4];
+    private final byte[] talon = new byte[TALON_CAPACITY];
+    private int talonSize;
+    // Talon cards already drawn; the waste top is talon[wastePos - 1].
+    private int wastePos;
+    private int foundationTotal;
+    private long hash;
+    // Column contents hashed without the column number, for canonicalHash(),
+    // and the foundation and talon part of the hash.
+    private final long[] columnHash = new long[COLUMNS];
+    private long otherHash;
+    private final int[] canonicalOrder = new int[COLUMNS];
+
+    private Position() {
+    }
+
+    // The position SolitaireGame deals from this id, before any move.
+    public static Position deal(DealId dealId) {
+        int[] order = dealId.unrank();
+        Position position = new Position();
+        int next = CARDS - 1;
+        for (int col = 0; col < COLUMNS; col++) {
+            for (int row = 0; row <= col; row++) {
+                position.tableau[col * COLUMN_CAPACITY + row] = (byte) order[next--];
+            }
+            position.columnSize[col] = col + 1;
+            position.faceDown[col] = col;
+        }
+        // The stock is filled in draw order from the end of the deck, so the
+        // first card drawn is the one pushed last: deck position 0.
+        for (int i = 0; i <= next; i++) {
+            position.talon[i] = (byte) order[i];
+        }
+        position.talonSize = next + 1;
+        position.computeHash();
+        return position;
+    }
+
+    public static Position of(SolitaireGame game) {
+        Position position = new Position();
+        for (int col = 0; col < COLUMNS; col++) {
+            List<Card> cards = game.getTableauPileObject(col).view();
+            int down = 0;
+            for (int i = 0; i < cards.size(); i++) {
+                position.tableau[col * COLUMN_CAPACITY + i] = (byte) DealId.cardCode(cards.get(i));
+                if (!cards.get(i).isFaceUp()) {
+                    down = i + 1;
+                }
+            }
+            position.columnSize[col] = cards.size();
+            position.faceDown[col] = down;
+        }
+        for (int f = 0; f < 4; f++) {
+            int suit = game.getFoundationSuit(f).ordinal();
+            position.foundation[suit] = game.getFoundationSize(f);
+            position.foundationTotal += position.foundation[suit];
+        }
+
+        // Waste bottom to top, then the stock in the order it will be drawn.
+        List<Card> waste = game.getWastePile().view();
+        List<Card> stock = game.getStockPile().view();
+        int n = 0;
+        for (Card card : waste) {
+            position.talon[n++] = (byte) DealId.cardCode(card);
+        }
+        for (int i = stock.size() - 1; i >= 0; i--) {
+            position.talon[n++] = (byte) DealId.cardCode(stock.get(i));
+        }
+        position.talonSize = n;
+        position.wastePos = waste.size();
+        position.computeHash();
+        return position;
+    }
+
+    // Longs in a packed position; see pack().
+    public static final int PACKED_WORDS = 8;
+    private static final int SYMBOLS_PER_WORD = 10;
+
+    // Writes the position as PACKED_WORDS longs of 6-bit symbols: foundation
+    // counts, the talon, then each column's size, face-down count and cards,
+    // columns in canonical order. Positions with the same canonicalHash()
+    // pack alike, and the packed form compares as plain longs for sorting.
+    // The draw pointer is not packed.
+    public void pack(long[] words, int offset) {
+        Arrays.fill(words, offset, offset + PACKED_WORDS, 0L);
+        int symbol = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            symbol = putSymbol(words, offset, symbol, foundation[suit]);
+        }
+        symbol = putSymbol(words, offset, symbol, talonSize);
+        for (int i = 0; i < talonSize; i++) {
+            symbol = putSymbol(words, offset, symbol, talon[i]);
+        }
+        canonicalOrder(canonicalOrder);
+        for (int k = 0; k < COLUMNS; k++) {
+            int col = canonicalOrder[k];
+            symbol = putSymbol(words, offset, symbol, columnSize[col]);
+            symbol = putSymbol(words, offset, symbol, faceDown[col]);
+            for (int i = 0; i < columnSize[col]; i++) {
+                symbol = putSymbol(words, offset, symbol, cardAt(col, i));
+            }
+        }
+    }
+
+    public static Position unpack(long[] words, int offset) {
+        Position position = new Position();
+        int symbol = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            position.foundation[suit] = getSymbol(words, offset, symbol++);
+            position.foundationTotal += position.foundation[suit];
+        }
+        position.talonSize = getSymbol(words, offset, symbol++);
+        for (int i = 0; i < position.talonSize; i++) {
+            position.talon[i] = (byte) getSymbol(words, offset, symbol++);
+        }
+        for (int col = 0; col < COLUMNS; col++) {
+            position.columnSize[col] = getSymbol(words, offset, symbol++);
+            position.faceDown[col] = getSymbol(words, offset, symbol++);
+            for (int i = 0; i < position.columnSize[col]; i++) {
+                position.tableau[col * COLUMN_CAPACITY + i] = (byte) getSymbol(words, offset, symbol++);
+            }
+        }
+        position.computeHash();
+        return position;
+    }
+
+    private static int putSymbol(long[] words, int offset, int symbol, int value) {
+        words[offset + symbol / SYMBOLS_PER_WORD] |= (long) value << (54 - 6 * (symbol % SYMBOLS_PER_WORD));
+        return symbol + 1;
+    }
+
+    private static int getSymbol(long[] words, int offset, int symbol) {
+        return (int) (words[offset + symbol / SYMBOLS_PER_WORD] >>> (54 - 6 * (symbol % SYMBOLS_PER_WORD))) & 0x3F;
+    }
+
+    public Position copy() {
+        Position copy = new Position();
+        System.arraycopy(tableau, 0, copy.tableau, 0, tableau.length);
+        System.arraycopy(columnSize, 0, copy.columnSize, 0, COLUMNS);
+        System.arraycopy(faceDown, 0, copy.faceDown, 0, COLUMNS);
+        System.arraycopy(foundation, 0, copy.foundation, 0, 4);
+        System.arraycopy(talon, 0, copy.talon, 0, talonSize);
+        copy.talonSize = talonSize;
+        copy.wastePos = wastePos;
+        copy.foundationTotal = foundationTotal;
+        copy.hash = hash;
+        System.arraycopy(columnHash, 0, copy.columnHash, 0, COLUMNS);
+        copy.otherHash = otherHash;
+        return copy;
+    }
+
+    public long hash() {
+        return hash;
+    }
+
+    // Hash that also covers the talon order, for caches shared between deals.
+    // hash() alone is enough within one game, where the order never changes.
+    public long fingerprint() {
+        long h = hash;
+        for (int i = 0; i < talonSize; i++) {
+            h = (h ^ talon[i]) * 0x100000001b3L;
+        }
+        return h ^ (h >>> 29);
+    }
+
+    // Hash that ignores which column holds which pile: columns are sorted by
+    // their contents first, so positions that differ only by the order of the
+    // columns (most often by which empty column a king went to) hash alike.
+    // Column numbers do not matter to the rules, so searches can treat such
+    // positions as one.
+    public long canonicalHash() {
+        canonicalOrder(canonicalOrder);
+        long h = otherHash;
+        for (int k = 0; k < COLUMNS; k++) {
+            h = (h ^ columnHash[canonicalOrder[k]]) * 0x9e3779b97f4a7c15L;
+        }
+        return h ^ (h >>> 31);
+    }
+
+    // Fills order with the columns in canonical order: order[k] is the column
+    // sorted k-th. Move.mapColumns(move, order) turns a move on canonical
+    // column numbers into one on this position's columns.
+    public void canonicalOrder(int[] order) {
+        for (int col = 0; col < COLUMNS; col++) {
+            int k = col;
+            // Only empty columns share a hash; they keep their own order.
+            while (k > 0 && columnHash[order[k - 1]] > columnHash[col]) {
+                order[k] = order[k - 1];
+                k--;
+            }
+            order[k] = col;
+        }
+    }
+
+    public boolean isWon() {
+        return foundationTotal == CARDS;
+    }
+
+    public int getFoundationTotal() {
+        return foundationTotal;
+    }
+
+    public int getFoundationCount(int suit) {
+        return foundation[suit];
+    }
+
+    public int getColumnSize(int col) {
+        return columnSize[col];
+    }
+
+    public int getFaceDownCount(int col) {
+        return faceDown[col];
+    }
+
+    public int cardAt(int col, int index) {
+        return tableau[col * COLUMN_CAPACITY + index];
+    }
+
+    public int getTalonSize() {
+        return talonSize;
+    }
+
+    public int talonCard(int index) {
+        return talon[index];
+    }
+
+    public int getWastePos() {
+        return wastePos;
+    }
+
+    public int getFaceDownTotal() {
+        int total = 0;
+        for (int col = 0; col < COLUMNS; col++) {
+            total += faceDown[col];
+        }
+        return total;
+    }
+
+    // Draws needed before talon card i is the waste top, redealing if it was passed.
+    public int drawsToReach(int index) {
+        if (index >= wastePos) {
+            return index - wastePos + 1;
+        }
+        return talonSize - wastePos + 1 + index + 1;
+    }
+
+    public static int suit(int card) {
+        return card / 13;
+    }
+
+    public static int rank(int card) {
+        return card % 13;
+    }
+
+    public static boolean isRed(int card) {
+        // Hearts and diamonds have even suit ordinals.
+        return (suit(card) & 1) == 0;
+    }
+
+    public static boolean canStack(int card, int onto) {
+        return isRed(card) != isRed(onto) && rank(card) == rank(onto) - 1;
+    }
+
+    public boolean fitsFoundation(int card) {
+        return foundation[suit(card)] == rank(card);
+    }
+
+    // Fills moves with the legal moves worth trying, foundation plays first.
+    // Returns the number written; moves must hold MAX_MOVES entries.
+    public int generateMoves(int[] moves) {
+        int n = 0;
+        for (int col = 0; col < COLUMNS; col++) {
+            int size = columnSize[col];
+            if (size > 0) {
+                int top = cardAt(col, size - 1);
+                if (fitsFoundation(top)) {
+                    moves[n++] = Move.of(Move.TABLEAU_TO_FOUNDATION, col, suit(top), 1);
+                }
+            }
+        }
+        for (int i = 0; i < talonSize; i++) {
+            if (fitsFoundation(talon[i])) {
+                moves[n++] = Move.of(Move.TALON_TO_FOUNDATION, i, suit(talon[i]), 1);
+            }
+        }
+
+        for (int col = 0; col < COLUMNS; col++) {
+            int size = columnSize[col];
+            int down = faceDown[col];
+            for (int start = down; start < size; start++) {
+                int card = cardAt(col, start);
+                if (start == down) {
+                    // Moving a king that already fills a column gains nothing.
+                    if (down == 0 && rank(card) == KING) {
+                        continue;
+                    }
+                } else if (!fitsFoundation(cardAt(col, start - 1))) {
+                    // Splitting a run only helps when it frees a foundation card.
+                    continue;
+                }
+                n = addTableauTargets(moves, n, Move.TABLEAU_TO_TABLEAU, col, card, size - start);
+            }
+        }
+
+        for (int i = 0; i < talonSize; i++) {
+            n = addTableauTargets(moves, n, Move.TALON_TO_TABLEAU, i, talon[i], 1);
+        }
+
+        for (int suit = 0; suit < 4; suit++) {
+            if (foundation[suit] > 1) {
+                int card = suit * 13 + foundation[suit] - 1;
+                for (int col = 0; col < COLUMNS; col++) {
+                    int size = columnSize[col];
+                    if (size > 0 && canStack(card, cardAt(col, size - 1))) {
+                        moves[n++] = Move.of(Move.FOUNDATION_TO_TABLEAU, suit, col, 1);
+                    }
+                }
+            }
+        }
+        return n;
+    }
+
+    private int addTableauTargets(int[] moves, int n, int kind, int source, int card, int count) {
+        boolean triedEmpty = false;
+        for (int col = 0; col < COLUMNS; col++) {
+            if (kind == Move.TABLEAU_TO_TABLEAU && col == source) {
+                continue;
+            }
+            int size = columnSize[col];
+            if (size == 0) {
+                // All empty columns are alike; offer only the first.
+                if (rank(card) == KING && !triedEmpty) {
+                    triedEmpty = true;
+                    moves[n++] = Move.of(kind, source, col, count);
+                }
+            } else if (canStack(card, cardAt(col, size - 1))) {
+                moves[n++] = Move.of(kind, source, col, count);
+            }
+        }
+        return n;
+    }
+
+    // Player-facing text for a move that has not been applied yet.
+    public String describe(int move) {
+        int source = Move.source(move);
+        int target = Move.target(move);
+        switch (Move.kind(move)) {
+            case Move.TABLEAU_TO_FOUNDATION:
+                return "Move " + cardName(cardAt(source, columnSize[source] - 1))
+                        + " from tableau " + (source + 1) + " to foundation";
+            case Move.TALON_TO_FOUNDATION:
+                return "Move " + cardName(talon[source]) + " from " + talonSource(source) + " to foundation";
+            case Move.TABLEAU_TO_TABLEAU:
+                return "Move " + cardName(cardAt(source, columnSize[source] - Move.count(move)))
+                        + " from tableau " + (source + 1) + " to tableau " + (target + 1);
+            case Move.TALON_TO_TABLEAU:
+                return "Move " + cardName(talon[source]) + " from " + talonSource(source)
+                        + " to tableau " + (target + 1);
+            case Move.FOUNDATION_TO_TABLEAU:
+                return "Move " + cardName(source * 13 + foundation[source] - 1)
+                        + " from foundation to tableau " + (target + 1);
+            default:
+                return Move.toString(move);
+        }
+    }
+
+    private String talonSource(int index) {
+        if (index == wastePos - 1) {
+            return "waste";
+        }
+        int draws = drawsToReach(index);
+        return "stock (" + draws + (draws == 1 ? " draw)" : " draws)");
+    }
+
+    private static String cardName(int card) {
+        Card c = DealId.cardFromCode(card);
+        return c.getRank() + " of " + c.getSuit();
+    }
+
+    // Applies a move from generateMoves and returns the token undo() needs.
+    public int apply(int move) {
+        int source = Move.source(move);
+        int target = Move.target(move);
+        int token = wastePos << 1;
+        switch (Move.kind(move)) {
+            case Move.TABLEAU_TO_FOUNDATION:
+                pushFoundation(popTableau(source));
+                return token | reveal(source);
+            case Move.TALON_TO_FOUNDATION:
+                pushFoundation(removeTalon(source));
+                return token;
+            case Move.TABLEAU_TO_TABLEAU:
+                moveRun(source, target, Move.count(move));
+                return token | reveal(source);
+            case Move.TALON_TO_TABLEAU:
+                pushTableau(target, removeTalon(source));
+                return token;
+            case Move.FOUNDATION_TO_TABLEAU:
+                pushTableau(target, popFoundation(source));
+                return token;
+            default:
+                throw new IllegalArgumentException("Unknown move " + move);
+        }
+    }
+
+    public void undo(int move, int token) {
+        int source = Move.source(move);
+        int target = Move.target(move);
+        switch (Move.kind(move)) {
+            case Move.TABLEAU_TO_FOUNDATION:
+                unreveal(source, token);
+                pushTableau(source, popFoundation(target));
+                break;
+            case Move.TALON_TO_FOUNDATION:
+                insertTalon(source, popFoundation(target));
+                break;
+            case Move.TABLEAU_TO_TABLEAU:
+                unreveal(source, token);
+                moveRun(target, source, Move.count(move));
+                break;
+            case Move.TALON_TO_TABLEAU:
+                insertTalon(source, popTableau(target));
+                break;
+            case Move.FOUNDATION_TO_TABLEAU:
+                pushFoundation(popTableau(target));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown move " + move);
+        }
+        wastePos = token >>> 1;
+    }
+
+    private int popTableau(int col) {
+        int index = --columnSize[col];
+        int card = tableau[col * COLUMN_CAPACITY + index];
+        hash ^= tableauKey(card, col, index, true);
+        columnHash[col] ^= columnKey(card, index, true);
+        return card;
+    }
+
+    private void pushTableau(int col, int card) {
+        int index = columnSize[col]++;
+        tableau[col * COLUMN_CAPACITY + index] = (byte) card;
+        hash ^= tableauKey(card, col, index, true);
+        columnHash[col] ^= columnKey(card, index, true);
+    }
+
+    private void moveRun(int from, int to, int count) {
+        int fromStart = columnSize[from] - count;
+        int toStart = columnSize[to];
+        for (int k = 0; k < count; k++) {
+            int card = tableau[from * COLUMN_CAPACITY + fromStart + k];
+            hash ^= tableauKey(card, from, fromStart + k, true) ^ tableauKey(card, to, toStart + k, true);
+            columnHash[from] ^= columnKey(card, fromStart + k, true);
+            columnHash[to] ^= columnKey(card, toStart + k, true);
+        }
+        System.arraycopy(tableau, from * COLUMN_CAPACITY + fromStart, tableau, to * COLUMN_CAPACITY + toStart, count);
+        columnSize[from] -= count;
+        columnSize[to] += count;
+    }
+
+    // Turns over a face-down card left on top; returns 1 if it did.
+    private int reveal(int col) {
+        int size = columnSize[col];
+        if (size > 0 && faceDown[col] == size) {
+            int card = cardAt(col, size - 1);
+            faceDown[col]--;
+            hash ^= tableauKey(card, col, size - 1, false) ^ tableauKey(card, col, size - 1, true);
+            columnHash[col] ^= columnKey(card, size - 1, false) ^ columnKey(card, size - 1, true);
+            return 1;
+        }
+        return 0;
+    }
+
+    private void unreveal(int col, int token) {
+        if ((token & 1) != 0) {
+            int size = columnSize[col];
+            int card = cardAt(col, size - 1);
+            faceDown[col]++;
+            hash ^= tableauKey(card, col, size - 1, false) ^ tableauKey(card, col, size - 1, true);
+            columnHash[col] ^= columnKey(card, size - 1, false) ^ columnKey(card, size - 1, true);
+        }
+    }
+
+    private void pushFoundation(int card) {
+        int suit = suit(card);
+        long keys = FOUNDATION_KEYS[suit * 14 + foundation[suit]] ^ FOUNDATION_KEYS[suit * 14 + foundation[suit] + 1];
+        hash ^= keys;
+        otherHash ^= keys;
+        foundation[suit]++;
+        foundationTotal++;
+    }
+
+    private int popFoundation(int suit) {
+        long keys = FOUNDATION_KEYS[suit * 14 + foundation[suit]] ^ FOUNDATION_KEYS[suit * 14 + foundation[suit] - 1];
+        hash ^= keys;
+        otherHash ^= keys;
+        foundation[suit]--;
+        foundationTotal--;
+        return suit * 13 + foundation[suit];
+    }
+
+    // Takes talon card i; the cards before it are the ones drawn to reach it.
+    private int removeTalon(int index) {
+        int card = talon[index];
+        System.arraycopy(talon, index + 1, talon, index, talonSize - index - 1);
+        talonSize--;
+        wastePos = index;
+        hash ^= TALON_KEYS[card];
+        otherHash ^= TALON_KEYS[card];
+        return card;
+    }
+
+    private void insertTalon(int index, int card) {
+        System.arraycopy(talon, index, talon, index + 1, talonSize - index);
+        talon[index] = (byte) card;
+        talonSize++;
+        hash ^= TALON_KEYS[card];
+        otherHash ^= TALON_KEYS[card];
+    }
+
+    private void computeHash() {
+        long h = 0;
+        for (int col = 0; col < COLUMNS; col++) {
+            columnHash[col] = 0;
+            for (int i = 0; i < columnSize[col]; i++) {
+                h ^= tableauKey(cardAt(col, i), col, i, i >= faceDown[col]);
+                columnHash[col] ^= columnKey(cardAt(col, i), i, i >= faceDown[col]);
+            }
+        }
+        long other = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            other ^= FOUNDATION_KEYS[suit * 14 + foundation[suit]];
+        }
+        for (int i = 0; i < talonSize; i++) {
+            other ^= TALON_KEYS[talon[i]];
+        }
+        hash = h ^ other;
+        otherHash = other;
+    }
+
+    private static long tableauKey(int card, int col, int index, boolean faceUp) {
+        return TABLEAU_KEYS[((card * COLUMNS + col) * COLUMN_CAPACITY + index) * 2 + (faceUp ? 1 : 0)];
+    }
+
+    // Column 0's keys stand in for any column in the column hashes.
+    private static long columnKey(int card, int index, boolean faceUp) {
+        return tableauKey(card, 0, index, faceUp);
+    }
+
+    private static void fillKeys(long[] keys, Random random) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package solitaire.solver;
+
+import java.util.Arrays;
+
+/**
+ * Depth-first Klondike solver (one-card draw, unlimited redeals) with a
+ * node budget. Positions already searched are skipped by Zobrist hash, so a
+ * deal the budget cannot settle comes back as unsolved rather than unsolvable.
+ * Solver(limit, true) hashes with Position.canonicalHash() instead, so
+ * positions that differ only by column order are searched once. That
+ * visits fewer states but costs more per node and runs about a quarter
+ * slower, so the plain hash stays the default.
+ *
+ * Seen positions go into an off-heap TranspositionTable. The default one is
+ * sized from the node limit; very long searches can pass a larger table.
+ * A full table forgets the deepest positions first, which costs repeated
+ * work, never a wrong answer.
+ */
+public class Solver {
+
+    public static final int MAX_DEPTH = 400;
+
+    private final long nodeLimit;
+    private final boolean canonical;
+    private static final long MIN_TABLE_BYTES = 1L << 20;
+    private static final long MAX_DEFAULT_TABLE_BYTES = 256L << 20;
+
+    private final TranspositionTable visited;
+    private final int[][] moveBuffers = new int[MAX_DEPTH][Position.MAX_MOVES];
+    private final int[] path = new int[MAX_DEPTH];
+
+    private long nodes;
+    private long deadEnds;
+    private int maxDepth;
+    private int solutionLength;
+    private boolean cutOff;
+
+    public Solver(long nodeLimit) {
+        this(nodeLimit, false);
+    }
+
+    // canonical = true treats positions that differ only by column order as one.
+    public Solver(long nodeLimit, boolean canonical) {
+        this(nodeLimit, canonical, new TranspositionTable(
+                Math.max(MIN_TABLE_BYTES, Math.min(nodeLimit * 64, MAX_DEFAULT_TABLE_BYTES))));
+    }
+
+    public Solver(long nodeLimit, boolean canonical, TranspositionTable visited) {
+        this.nodeLimit = nodeLimit;
+        this.canonical = canonical;
+        this.visited = visited;
+    }
+
+    public Result solve(Position start) {
+        visited.newSearch();
+        nodes = 0;
+        deadEnds = 0;
+        maxDepth = 0;
+        solutionLength = 0;
+        cutOff = false;
+        boolean solved = search(start.copy(), 0);
+        int[] solution = solved ? Arrays.copyOf(path, solutionLength) : new int[0];
+        return new Result(solved, !solved && !cutOff, solution, nodes, deadEnds, maxDepth);
+    }
+
+    private boolean search(Position position, int depth) {
+        if (position.isWon()) {
+            solutionLength = depth;
+            return true;
+        }
+        if (nodes >= nodeLimit || depth == MAX_DEPTH) {
+            cutOff = true;
+            return false;
+        }
+        if (!visited.visit(canonical ? position.canonicalHash() : position.hash(), depth)) {
+            return false;
+        }
+        nodes++;
+        maxDepth = Math.max(maxDepth, depth);
+
+        int[] moves = moveBuffers[depth];
+        int count = position.generateMoves(moves);
+        long nodesBefore = nodes;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int token = position.apply(move);
+            path[depth] = move;
+            boolean solved = search(position, depth + 1);
+            position.undo(move, token);
+            if (solved) {
+                return true;
+            }
+        }
+        // No move led to a position that had not been seen already.
+        if (nodes == nodesBefore) {
+            deadEnds++;
+        }
+        return false;
+    }
+
+    public static class Result {
+        private final boolean solved;
+        private final boolean exhausted;
+        private final int[] solution;
+        private final long nodes;
+        private final long deadEnds;
+        private final int maxDepth;
+
+        Result(boolean solved, boolean exhausted, int[] solution, long nodes, long deadEnds, int maxDepth) {
+            this.solved = solved;
+            this.exhausted = exhausted;
+            this.solution = solution;
+            this.nodes = nodes;
+            this.deadEnds = deadEnds;
+            this.maxDepth = maxDepth;
+        }
+
+        public boolean isSolved() {
+            return solved;
+        }
+
+        // True when the search ran to the end without a win or a cut-off.
+        // Not a proof the deal is lost: the move generator prunes moves it
+        // judges useless, so a win outside those lines may still exist.
+        public boolean isExhausted() {
+            return exhausted;
+        }
+
+        public int[] getSolution() {
+            return solution.clone();
+        }
+
+        public int getSolutionLength() {
+            return solution.length;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+
+        public long getDeadEnds() {
+            return deadEnds;
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        // Share of searched positions that had nowhere new to go.
+        public double getDeadEndRatio() {
+            return nodes == 0 ? 0 : (double) deadEnds / nodes;
+        }
+    }
+}
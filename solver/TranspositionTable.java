@@ -0,0 +1,167 @@
+package solitaire.solver;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-size hash table from 64-bit position hashes to small values, kept
+ * off the Java heap so searches over hundreds of millions of positions put
+ * no load on the garbage collector.
+ *
+ * Memory is a set of direct ByteBuffer slabs of up to 1 GB each, so a table
+ * can take several gigabytes (raise -XX:MaxDirectMemorySize to match). It is
+ * split into 64-byte buckets of four 16-byte entries; an entry holds its
+ * data word and the key XOR the data word. A reader that sees half of
+ * another thread's write gets a mismatched key and treats the entry as
+ * missing, so threads can share a table without locks.
+ *
+ * Every entry records the search it belongs to (its age) and the depth it was
+ * stored at. newSearch() starts a new age instead of clearing the table, and
+ * entries from older searches count as missing. A full bucket gives up an
+ * old entry first, then the deepest one, whose subtree is the cheapest to
+ * search again.
+ */
+public final class TranspositionTable {
+
+    public static final int MISSING = Integer.MIN_VALUE;
+    public static final int MAX_DEPTH = 0x3FF;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_BYTES = ENTRY_BYTES * BUCKET_ENTRIES;
+    private static final int MAX_SLAB_BUCKETS = (1 << 30) / BUCKET_BYTES;
+    private static final int MAX_AGE = 0xFFFF;
+
+    // Data word: value in bits 0-31, age in 32-47, depth in 48-57, bit 62 set
+    // in every stored entry so that no stored data word is zero.
+    private static final long USED = 1L << 62;
+
+    private final ByteBuffer[] slabs;
+    private final int slabShift;
+    private final long slabMask;
+    private final long bucketMask;
+    private int age = 1;
+
+    // Uses the largest power-of-two number of buckets that fits in budgetBytes.
+    public TranspositionTable(long budgetBytes) {
+        long buckets = Long.highestOneBit(Math.max(budgetBytes / BUCKET_BYTES, 1));
+        int slabBuckets = (int) Math.min(buckets, MAX_SLAB_BUCKETS);
+        slabShift = Integer.numberOfTrailingZeros(slabBuckets);
+        slabMask = slabBuckets - 1;
+        bucketMask = buckets - 1;
+        slabs = new ByteBuffer[(int) (buckets >>> slabShift)];
+        for (int i = 0; i < slabs.length; i++) {
+            // New direct buffers are zeroed, which is an empty table.
+            slabs[i] = ByteBuffer.allocateDirect(slabBuckets * BUCKET_BYTES + BUCKET_BYTES - 1)
+                    .alignedSlice(BUCKET_BYTES);
+        }
+    }
+
+    public long getCapacity() {
+        return (bucketMask + 1) * BUCKET_ENTRIES;
+    }
+
+    public long getBytes() {
+        return (bucketMask + 1) * BUCKET_BYTES;
+    }
+
+    // Makes every stored entry stale; O(1) except when the age counter wraps.
+    public void newSearch() {
+        if (++age > MAX_AGE) {
+            clear();
+        }
+    }
+
+    public void clear() {
+        byte[] zeros = new byte[1 << 16];
+        for (ByteBuffer slab : slabs) {
+            ByteBuffer view = slab.duplicate();
+            view.clear();
+            while (view.hasRemaining()) {
+                view.put(zeros, 0, Math.min(zeros.length, view.remaining()));
+            }
+        }
+        age = 1;
+    }
+
+    // The value stored for key in this search, or MISSING.
+    public int get(long key) {
+        ByteBuffer slab = slabs[(int) ((key & bucketMask) >>> slabShift)];
+        int base = (int) (key & bucketMask & slabMask) * BUCKET_BYTES;
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int offset = base + i * ENTRY_BYTES;
+            long data = (long) LONGS.getOpaque(slab, offset + 8);
+            long check = (long) LONGS.getOpaque(slab, offset);
+            if ((check ^ data) == key && (data & USED) != 0 && age(data) == age) {
+                return (int) data;
+            }
+        }
+        return MISSING;
+    }
+
+    public void put(long key, int depth, int value) {
+        long data = USED | (long) Math.min(depth, MAX_DEPTH) << 48 | (long) age << 32 | (value & 0xFFFFFFFFL);
+        ByteBuffer slab = slabs[(int) ((key & bucketMask) >>> slabShift)];
+        int base = (int) (key & bucketMask & slabMask) * BUCKET_BYTES;
+        int victim = 0;
+        int worst = -1;
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int offset = base + i * ENTRY_BYTES;
+            long old = (long) LONGS.getOpaque(slab, offset + 8);
+            long check = (long) LONGS.getOpaque(slab, offset);
+            if ((check ^ old) == key && (old & USED) != 0) {
+                victim = i;
+                break;
+            }
+            // Empty beats stale beats deep.
+            int score = (old & USED) == 0 ? Integer.MAX_VALUE
+                    : age(old) != age ? MAX_DEPTH + 1 : depth(old);
+            if (score > worst) {
+                worst = score;
+                victim = i;
+            }
+        }
+        int offset = base + victim * ENTRY_BYTES;
+        LONGS.setOpaque(slab, offset + 8, data);
+        LONGS.setOpaque(slab, offset, key ^ data);
+    }
+
+    // Records key as seen in this search; false if it was already there.
+    // Two threads reaching the same key at once may both get true.
+    public boolean visit(long key, int depth) {
+        if (get(key) != MISSING) {
+            return false;
+        }
+        put(key, depth, 0);
+        return true;
+    }
+
+    // Share of entries in use by this search, per mille, from the first buckets.
+    public int getUsagePermille() {
+        long sample = Math.min(bucketMask + 1, 1000);
+        int used = 0;
+        for (long bucket = 0; bucket < sample; bucket++) {
+            ByteBuffer slab = slabs[(int) (bucket >>> slabShift)];
+            int base = (int) (bucket & slabMask) * BUCKET_BYTES;
+            for (int i = 0; i < BUCKET_ENTRIES; i++) {
+                long data = (long) LONGS.getOpaque(slab, base + i * ENTRY_BYTES + 8);
+                if ((data & USED) != 0 && age(data) == age) {
+                    used++;
+                }
+            }
+        }
+        return (int) (used * 1000 / (sample * BUCKET_ENTRIES));
+    }
+
+    private static int age(long data) {
+        return (int) (data >>> 32) & MAX_AGE;
+    }
+
+    private static int depth(long data) {
+        return (int) (data >>> 48) & MAX_DEPTH;
+    }
+}